@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Compares the built-in converters of {@link BigDecimal} and {@link URI}, which cache converted values
+ * in a {@link ConvertedValueCache}, with parsing the same raw value on each conversion.
+ *
+ * This benchmark lives in the {@code org.jeasy.props} package to access package-private classes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConvertedValueCacheBenchmark {
+
+    private final String decimal = "12345.678901234567890123456789";
+    private final String uri = "https://github.com/j-easy/easy-props/blob/master/README.md?tab=readme#usage";
+    private MethodHandle bigDecimalConverter;
+    private MethodHandle uriConverter;
+
+    @Setup
+    public void setUp() {
+        bigDecimalConverter = BuiltinTypeConverters.getConverter(BigDecimal.class).asType(methodType(Object.class, Object.class));
+        uriConverter = BuiltinTypeConverters.getConverter(URI.class).asType(methodType(Object.class, Object.class));
+    }
+
+    @Benchmark
+    public Object parseBigDecimal() {
+        return new BigDecimal(decimal.trim());
+    }
+
+    @Benchmark
+    public Object cachedBigDecimal() throws Throwable {
+        return (Object) bigDecimalConverter.invokeExact((Object) decimal);
+    }
+
+    @Benchmark
+    public Object parseURI() {
+        return URI.create(uri.trim());
+    }
+
+    @Benchmark
+    public Object cachedURI() throws Throwable {
+        return (Object) uriConverter.invokeExact((Object) uri);
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.apache.commons.beanutils.ConvertUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective write path used before injection plans (accessibility toggling
+ * and {@link Field#set}, with commons-beanutils conversion) with {@link FieldWriter} and
+ * {@link BuiltinTypeConverters}, with and without conversion.
+ *
+ * This benchmark lives in the {@code org.jeasy.props} package to access package-private classes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FieldWriteBenchmark {
+
+    static class Bean {
+        private int value;
+    }
+
+    private final Bean bean = new Bean();
+    private final Integer typedValue = 42;
+    private final String rawValue = "42";
+    private Field field;
+    private FieldWriter fieldWriter;
+
+    @Setup
+    public void setUp() throws Exception {
+        field = Bean.class.getDeclaredField("value");
+        fieldWriter = FieldWriter.of(field).withConverter(BuiltinTypeConverters.getConverter(int.class));
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Object reflectiveSet() throws Exception {
+        boolean access = field.isAccessible();
+        field.setAccessible(true);
+        field.set(bean, typedValue);
+        field.setAccessible(access);
+        return bean;
+    }
+
+    @Benchmark
+    public Object fieldWriterSet() throws Throwable {
+        fieldWriter.set(bean, typedValue);
+        return bean;
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Object reflectiveConvertAndSet() throws Exception {
+        Object converted = ConvertUtils.convert(rawValue, int.class);
+        boolean access = field.isAccessible();
+        field.setAccessible(true);
+        field.set(bean, converted);
+        field.setAccessible(access);
+        return bean;
+    }
+
+    @Benchmark
+    public Object fieldWriterConvertAndSet() throws Throwable {
+        fieldWriter.convertAndSet(bean, rawValue);
+        return bean;
+    }
+
+}
@@ -0,0 +1,322 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.benchmarks;
+
+import org.jeasy.props.annotations.SystemProperty;
+
+/**
+ * Configuration beans used in benchmarks.
+ */
+public final class Beans {
+
+    private Beans() {
+
+    }
+
+    public static class OneField {
+        @SystemProperty("bench.name")
+        String field0;
+    }
+
+    public static class TenFields {
+        @SystemProperty("bench.name")
+        String field0;
+        @SystemProperty("bench.name")
+        String field1;
+        @SystemProperty("bench.name")
+        String field2;
+        @SystemProperty("bench.name")
+        String field3;
+        @SystemProperty("bench.name")
+        String field4;
+        @SystemProperty("bench.name")
+        String field5;
+        @SystemProperty("bench.name")
+        String field6;
+        @SystemProperty("bench.name")
+        String field7;
+        @SystemProperty("bench.name")
+        String field8;
+        @SystemProperty("bench.name")
+        String field9;
+    }
+
+    public static class HundredFields {
+        @SystemProperty("bench.name")
+        String field0;
+        @SystemProperty("bench.name")
+        String field1;
+        @SystemProperty("bench.name")
+        String field2;
+        @SystemProperty("bench.name")
+        String field3;
+        @SystemProperty("bench.name")
+        String field4;
+        @SystemProperty("bench.name")
+        String field5;
+        @SystemProperty("bench.name")
+        String field6;
+        @SystemProperty("bench.name")
+        String field7;
+        @SystemProperty("bench.name")
+        String field8;
+        @SystemProperty("bench.name")
+        String field9;
+        @SystemProperty("bench.name")
+        String field10;
+        @SystemProperty("bench.name")
+        String field11;
+        @SystemProperty("bench.name")
+        String field12;
+        @SystemProperty("bench.name")
+        String field13;
+        @SystemProperty("bench.name")
+        String field14;
+        @SystemProperty("bench.name")
+        String field15;
+        @SystemProperty("bench.name")
+        String field16;
+        @SystemProperty("bench.name")
+        String field17;
+        @SystemProperty("bench.name")
+        String field18;
+        @SystemProperty("bench.name")
+        String field19;
+        @SystemProperty("bench.name")
+        String field20;
+        @SystemProperty("bench.name")
+        String field21;
+        @SystemProperty("bench.name")
+        String field22;
+        @SystemProperty("bench.name")
+        String field23;
+        @SystemProperty("bench.name")
+        String field24;
+        @SystemProperty("bench.name")
+        String field25;
+        @SystemProperty("bench.name")
+        String field26;
+        @SystemProperty("bench.name")
+        String field27;
+        @SystemProperty("bench.name")
+        String field28;
+        @SystemProperty("bench.name")
+        String field29;
+        @SystemProperty("bench.name")
+        String field30;
+        @SystemProperty("bench.name")
+        String field31;
+        @SystemProperty("bench.name")
+        String field32;
+        @SystemProperty("bench.name")
+        String field33;
+        @SystemProperty("bench.name")
+        String field34;
+        @SystemProperty("bench.name")
+        String field35;
+        @SystemProperty("bench.name")
+        String field36;
+        @SystemProperty("bench.name")
+        String field37;
+        @SystemProperty("bench.name")
+        String field38;
+        @SystemProperty("bench.name")
+        String field39;
+        @SystemProperty("bench.name")
+        String field40;
+        @SystemProperty("bench.name")
+        String field41;
+        @SystemProperty("bench.name")
+        String field42;
+        @SystemProperty("bench.name")
+        String field43;
+        @SystemProperty("bench.name")
+        String field44;
+        @SystemProperty("bench.name")
+        String field45;
+        @SystemProperty("bench.name")
+        String field46;
+        @SystemProperty("bench.name")
+        String field47;
+        @SystemProperty("bench.name")
+        String field48;
+        @SystemProperty("bench.name")
+        String field49;
+        @SystemProperty("bench.name")
+        String field50;
+        @SystemProperty("bench.name")
+        String field51;
+        @SystemProperty("bench.name")
+        String field52;
+        @SystemProperty("bench.name")
+        String field53;
+        @SystemProperty("bench.name")
+        String field54;
+        @SystemProperty("bench.name")
+        String field55;
+        @SystemProperty("bench.name")
+        String field56;
+        @SystemProperty("bench.name")
+        String field57;
+        @SystemProperty("bench.name")
+        String field58;
+        @SystemProperty("bench.name")
+        String field59;
+        @SystemProperty("bench.name")
+        String field60;
+        @SystemProperty("bench.name")
+        String field61;
+        @SystemProperty("bench.name")
+        String field62;
+        @SystemProperty("bench.name")
+        String field63;
+        @SystemProperty("bench.name")
+        String field64;
+        @SystemProperty("bench.name")
+        String field65;
+        @SystemProperty("bench.name")
+        String field66;
+        @SystemProperty("bench.name")
+        String field67;
+        @SystemProperty("bench.name")
+        String field68;
+        @SystemProperty("bench.name")
+        String field69;
+        @SystemProperty("bench.name")
+        String field70;
+        @SystemProperty("bench.name")
+        String field71;
+        @SystemProperty("bench.name")
+        String field72;
+        @SystemProperty("bench.name")
+        String field73;
+        @SystemProperty("bench.name")
+        String field74;
+        @SystemProperty("bench.name")
+        String field75;
+        @SystemProperty("bench.name")
+        String field76;
+        @SystemProperty("bench.name")
+        String field77;
+        @SystemProperty("bench.name")
+        String field78;
+        @SystemProperty("bench.name")
+        String field79;
+        @SystemProperty("bench.name")
+        String field80;
+        @SystemProperty("bench.name")
+        String field81;
+        @SystemProperty("bench.name")
+        String field82;
+        @SystemProperty("bench.name")
+        String field83;
+        @SystemProperty("bench.name")
+        String field84;
+        @SystemProperty("bench.name")
+        String field85;
+        @SystemProperty("bench.name")
+        String field86;
+        @SystemProperty("bench.name")
+        String field87;
+        @SystemProperty("bench.name")
+        String field88;
+        @SystemProperty("bench.name")
+        String field89;
+        @SystemProperty("bench.name")
+        String field90;
+        @SystemProperty("bench.name")
+        String field91;
+        @SystemProperty("bench.name")
+        String field92;
+        @SystemProperty("bench.name")
+        String field93;
+        @SystemProperty("bench.name")
+        String field94;
+        @SystemProperty("bench.name")
+        String field95;
+        @SystemProperty("bench.name")
+        String field96;
+        @SystemProperty("bench.name")
+        String field97;
+        @SystemProperty("bench.name")
+        String field98;
+        @SystemProperty("bench.name")
+        String field99;
+    }
+
+    /*
+     * Inheritance chain of 10 levels with one annotated field per level
+     */
+
+    public static class Level1 {
+        @SystemProperty("bench.name")
+        String level1Field;
+    }
+
+    public static class Level2 extends Level1 {
+        @SystemProperty("bench.name")
+        String level2Field;
+    }
+
+    public static class Level3 extends Level2 {
+        @SystemProperty("bench.name")
+        String level3Field;
+    }
+
+    public static class Level4 extends Level3 {
+        @SystemProperty("bench.name")
+        String level4Field;
+    }
+
+    public static class Level5 extends Level4 {
+        @SystemProperty("bench.name")
+        String level5Field;
+    }
+
+    public static class Level6 extends Level5 {
+        @SystemProperty("bench.name")
+        String level6Field;
+    }
+
+    public static class Level7 extends Level6 {
+        @SystemProperty("bench.name")
+        String level7Field;
+    }
+
+    public static class Level8 extends Level7 {
+        @SystemProperty("bench.name")
+        String level8Field;
+    }
+
+    public static class Level9 extends Level8 {
+        @SystemProperty("bench.name")
+        String level9Field;
+    }
+
+    public static class Level10 extends Level9 {
+        @SystemProperty("bench.name")
+        String level10Field;
+    }
+
+}
@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.benchmarks;
+
+import org.jeasy.props.annotations.SystemProperty;
+import org.jeasy.props.api.PropertiesInjector;
+import org.jeasy.props.api.TypeConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import static org.jeasy.props.PropertiesInjectorBuilder.aNewPropertiesInjectorBuilder;
+
+/**
+ * Benchmarks the conversion of raw values to the type of target fields.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConversionBenchmark {
+
+    static class StringBean {
+        @SystemProperty("bench.string")
+        String value;
+    }
+
+    static class IntBean {
+        @SystemProperty("bench.int")
+        int value;
+    }
+
+    static class LongBean {
+        @SystemProperty("bench.long")
+        long value;
+    }
+
+    static class DoubleBean {
+        @SystemProperty("bench.double")
+        double value;
+    }
+
+    static class BooleanBean {
+        @SystemProperty("bench.boolean")
+        boolean value;
+    }
+
+    static class BigDecimalBean {
+        @SystemProperty("bench.decimal")
+        BigDecimal value;
+    }
+
+    static class CustomConverterBean {
+        @SystemProperty("bench.date")
+        LocalDate value;
+    }
+
+    private PropertiesInjector propertiesInjector;
+
+    private final StringBean stringBean = new StringBean();
+    private final IntBean intBean = new IntBean();
+    private final LongBean longBean = new LongBean();
+    private final DoubleBean doubleBean = new DoubleBean();
+    private final BooleanBean booleanBean = new BooleanBean();
+    private final BigDecimalBean bigDecimalBean = new BigDecimalBean();
+    private final CustomConverterBean customConverterBean = new CustomConverterBean();
+
+    @Setup
+    public void setUp() {
+        System.setProperty("bench.string", "Foo");
+        System.setProperty("bench.int", "42");
+        System.setProperty("bench.long", "4200000000");
+        System.setProperty("bench.double", "42.5");
+        System.setProperty("bench.boolean", "true");
+        System.setProperty("bench.decimal", "12345.6789");
+        System.setProperty("bench.date", "2020-03-01");
+        propertiesInjector = aNewPropertiesInjectorBuilder()
+                .registerTypeConverter(LocalDate.class, (TypeConverter<String, LocalDate>) LocalDate::parse)
+                .build();
+    }
+
+    @Benchmark
+    public Object string() {
+        propertiesInjector.injectProperties(stringBean);
+        return stringBean;
+    }
+
+    @Benchmark
+    public Object intValue() {
+        propertiesInjector.injectProperties(intBean);
+        return intBean;
+    }
+
+    @Benchmark
+    public Object longValue() {
+        propertiesInjector.injectProperties(longBean);
+        return longBean;
+    }
+
+    @Benchmark
+    public Object doubleValue() {
+        propertiesInjector.injectProperties(doubleBean);
+        return doubleBean;
+    }
+
+    @Benchmark
+    public Object booleanValue() {
+        propertiesInjector.injectProperties(booleanBean);
+        return booleanBean;
+    }
+
+    @Benchmark
+    public Object bigDecimal() {
+        propertiesInjector.injectProperties(bigDecimalBean);
+        return bigDecimalBean;
+    }
+
+    @Benchmark
+    public Object customConverter() {
+        propertiesInjector.injectProperties(customConverterBean);
+        return customConverterBean;
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.benchmarks;
+
+import org.jeasy.props.api.PropertiesInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.jeasy.props.PropertiesInjectorBuilder.aNewPropertiesInjector;
+
+/**
+ * Benchmarks injecting properties in beans with a deep inheritance chain
+ * (one annotated field per level) compared to a bean without inheritance.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InheritanceBenchmark {
+
+    private PropertiesInjector propertiesInjector;
+    private Beans.Level1 rootBean;
+    private Beans.Level10 deepBean;
+    private Beans.TenFields flatBean;
+
+    @Setup
+    public void setUp() {
+        System.setProperty("bench.name", "Foo");
+        propertiesInjector = aNewPropertiesInjector();
+        rootBean = new Beans.Level1();
+        deepBean = new Beans.Level10();
+        flatBean = new Beans.TenFields();
+    }
+
+    @Benchmark
+    public Object rootOfHierarchy() {
+        propertiesInjector.injectProperties(rootBean);
+        return rootBean;
+    }
+
+    @Benchmark
+    public Object tenLevelsHierarchy() {
+        propertiesInjector.injectProperties(deepBean);
+        return deepBean;
+    }
+
+    @Benchmark
+    public Object tenFieldsWithoutHierarchy() {
+        propertiesInjector.injectProperties(flatBean);
+        return flatBean;
+    }
+
+}
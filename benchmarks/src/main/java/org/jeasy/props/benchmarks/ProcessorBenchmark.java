@@ -0,0 +1,162 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.benchmarks;
+
+import org.jeasy.props.annotations.DBProperty;
+import org.jeasy.props.annotations.I18NProperty;
+import org.jeasy.props.annotations.ManifestProperty;
+import org.jeasy.props.annotations.MavenProperty;
+import org.jeasy.props.annotations.Property;
+import org.jeasy.props.annotations.SystemProperty;
+import org.jeasy.props.api.PropertiesInjector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import static org.jeasy.props.PropertiesInjectorBuilder.aNewPropertiesInjector;
+
+/**
+ * Benchmarks injecting a single property with each built-in annotation processor.
+ *
+ * The manifest benchmark reads the manifest of {@code benchmarks.jar}, so it should
+ * be run from the shaded jar (see README.md).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProcessorBenchmark {
+
+    static class PropertyBean {
+        @Property(source = "benchmark.properties", key = "bench.name")
+        String name;
+    }
+
+    static class SystemPropertyBean {
+        @SystemProperty("bench.name")
+        String name;
+    }
+
+    static class DBPropertyBean {
+        @DBProperty(configuration = "benchmark-database.properties", key = "name")
+        String name;
+    }
+
+    static class I18NPropertyBean {
+        @I18NProperty(bundle = "benchmark-messages", key = "greeting")
+        String greeting;
+    }
+
+    static class ManifestPropertyBean {
+        @ManifestProperty(jar = "benchmarks.jar", header = "Main-Class")
+        String mainClass;
+    }
+
+    static class MavenPropertyBean {
+        @MavenProperty(groupId = "org.jeasy", artifactId = "easy-props", key = "version")
+        String version;
+    }
+
+    private PropertiesInjector propertiesInjector;
+    private Connection connection;
+
+    private final PropertyBean propertyBean = new PropertyBean();
+    private final SystemPropertyBean systemPropertyBean = new SystemPropertyBean();
+    private final DBPropertyBean dbPropertyBean = new DBPropertyBean();
+    private final I18NPropertyBean i18nPropertyBean = new I18NPropertyBean();
+    private final ManifestPropertyBean manifestPropertyBean = new ManifestPropertyBean();
+    private final MavenPropertyBean mavenPropertyBean = new MavenPropertyBean();
+
+    @Setup
+    public void setUp() throws SQLException {
+        System.setProperty("bench.name", "Foo");
+        connection = DriverManager.getConnection("jdbc:hsqldb:mem:benchmark", "sa", "");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table ApplicationProperties (id int, key varchar(64), value varchar(64))");
+            statement.execute("insert into ApplicationProperties values (1, 'name', 'Foo')");
+        }
+        propertiesInjector = aNewPropertiesInjector();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("shutdown");
+        }
+        connection.close();
+    }
+
+    @Benchmark
+    public Object property() {
+        propertiesInjector.injectProperties(propertyBean);
+        return propertyBean;
+    }
+
+    @Benchmark
+    public Object systemProperty() {
+        propertiesInjector.injectProperties(systemPropertyBean);
+        return systemPropertyBean;
+    }
+
+    @Benchmark
+    public Object dbProperty() {
+        propertiesInjector.injectProperties(dbPropertyBean);
+        return dbPropertyBean;
+    }
+
+    @Benchmark
+    public Object i18nProperty() {
+        propertiesInjector.injectProperties(i18nPropertyBean);
+        return i18nPropertyBean;
+    }
+
+    @Benchmark
+    public Object manifestProperty() {
+        propertiesInjector.injectProperties(manifestPropertyBean);
+        return manifestPropertyBean;
+    }
+
+    @Benchmark
+    public Object mavenProperty() {
+        propertiesInjector.injectProperties(mavenPropertyBean);
+        return mavenPropertyBean;
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.apt;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static java.lang.String.format;
+
+/**
+ * Annotation processor generating the GraalVM native image reflection configuration of types declaring
+ * fields annotated with Easy Props built-in annotations.
+ *
+ * Easy Props discovers annotated fields and writes them with reflection, which native images only support
+ * for elements registered at build time. This processor registers annotated fields (including private and
+ * final ones, which are written reflectively) of the compiled types in a {@value #REFLECTION_CONFIGURATION}
+ * resource, which the native image builder reads from the class path. Types are not otherwise changed:
+ * the same injection path is used on the JVM and in native images.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+@SupportedAnnotationTypes({
+        "org.jeasy.props.annotations.DBProperty",
+        "org.jeasy.props.annotations.EnvironmentVariable",
+        "org.jeasy.props.annotations.I18NProperty",
+        "org.jeasy.props.annotations.JNDIProperty",
+        "org.jeasy.props.annotations.ManifestProperty",
+        "org.jeasy.props.annotations.MavenProperty",
+        "org.jeasy.props.annotations.Properties",
+        "org.jeasy.props.annotations.Property",
+        "org.jeasy.props.annotations.SystemProperty"
+})
+public class ReflectionConfigGenerator extends AbstractProcessor {
+
+    static final String REFLECTION_CONFIGURATION = "META-INF/native-image/org.jeasy/easy-props-generated/reflect-config.json";
+
+    /**
+     * Annotated fields by binary name of their declaring type, collected over all rounds.
+     */
+    private final Map<String, Set<String>> annotatedFields = new TreeMap<>();
+    private final List<Element> originatingElements = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnvironment) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnvironment.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() == ElementKind.FIELD) {
+                    TypeElement type = (TypeElement) element.getEnclosingElement();
+                    String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+                    annotatedFields.computeIfAbsent(binaryName, t -> new LinkedHashSet<>()).add(((VariableElement) element).getSimpleName().toString());
+                    originatingElements.add(type);
+                }
+            }
+        }
+        if (roundEnvironment.processingOver() && !annotatedFields.isEmpty()) {
+            writeReflectionConfiguration();
+        }
+        // do not claim annotations, other processors may be interested in them
+        return false;
+    }
+
+    private void writeReflectionConfiguration() {
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "",
+                    REFLECTION_CONFIGURATION, originatingElements.toArray(new Element[0]));
+            try (Writer writer = resource.openWriter()) {
+                writeReflectionConfiguration(new PrintWriter(writer));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                    format("Unable to generate native image reflection configuration '%s': %s", REFLECTION_CONFIGURATION, e.getMessage()));
+        }
+    }
+
+    private void writeReflectionConfiguration(final PrintWriter out) {
+        out.printf("[%n");
+        for (Iterator<Map.Entry<String, Set<String>>> types = annotatedFields.entrySet().iterator(); types.hasNext(); ) {
+            Map.Entry<String, Set<String>> type = types.next();
+            out.printf("  {%n");
+            out.printf("    \"name\": \"%s\",%n", type.getKey());
+            out.printf("    \"fields\": [%n");
+            for (Iterator<String> fields = type.getValue().iterator(); fields.hasNext(); ) {
+                out.printf("      {\"name\": \"%s\", \"allowWrite\": true}%s%n", fields.next(), fields.hasNext() ? "," : "");
+            }
+            out.printf("    ]%n");
+            out.printf("  }%s%n", types.hasNext() ? "," : "");
+        }
+        out.printf("]%n");
+        out.flush();
+    }
+
+}
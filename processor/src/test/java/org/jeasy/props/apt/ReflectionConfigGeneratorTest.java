@@ -0,0 +1,113 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.apt;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReflectionConfigGeneratorTest {
+
+    private static final String BEAN = "package com.acme;\n" +
+            "import org.jeasy.props.annotations.*;\n" +
+            "public class Bean {\n" +
+            "    @SystemProperty(\"generated.name\") String name;\n" +
+            "    @SystemProperty(value = \"generated.threshold\", defaultValue = \"42\") protected int threshold;\n" +
+            "    @SystemProperty(\"generated.name\") private final String privateName = null;\n" +
+            "    String notAnnotated;\n" +
+            "    public static class Nested {\n" +
+            "        @SystemProperty(\"generated.name\") public String name;\n" +
+            "    }\n" +
+            "}\n";
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testReflectionConfigurationGeneration() throws Exception {
+        //given
+        File output = temporaryFolder.newFolder();
+
+        //when
+        compile("com.acme.Bean", BEAN, output);
+
+        //then
+        Path configuration = output.toPath().resolve(ReflectionConfigGenerator.REFLECTION_CONFIGURATION);
+        assertThat(configuration).exists();
+        assertThat(new String(Files.readAllBytes(configuration))).isEqualToIgnoringWhitespace("[" +
+                "{\"name\": \"com.acme.Bean\", \"fields\": [" +
+                "{\"name\": \"name\", \"allowWrite\": true}," +
+                "{\"name\": \"threshold\", \"allowWrite\": true}," +
+                "{\"name\": \"privateName\", \"allowWrite\": true}]}," +
+                "{\"name\": \"com.acme.Bean$Nested\", \"fields\": [" +
+                "{\"name\": \"name\", \"allowWrite\": true}]}" +
+                "]");
+    }
+
+    @Test
+    public void whenNoFieldIsAnnotated_thenNoConfigurationShouldBeGenerated() throws Exception {
+        //given
+        File output = temporaryFolder.newFolder();
+
+        //when
+        compile("com.acme.Plain", "package com.acme;\npublic class Plain {\n    String name;\n}\n", output);
+
+        //then
+        assertThat(output.toPath().resolve(ReflectionConfigGenerator.REFLECTION_CONFIGURATION)).doesNotExist();
+    }
+
+    private void compile(final String className, final String source, final File output) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
+        fileManager.setLocation(StandardLocation.CLASS_OUTPUT, singletonList(output));
+        fileManager.setLocation(StandardLocation.SOURCE_OUTPUT, singletonList(output));
+        JavaFileObject sourceFile = new SimpleJavaFileObject(URI.create("string:///" + className.replace('.', '/') + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, null, options, null, singletonList(sourceFile));
+        task.setProcessors(singletonList(new ReflectionConfigGenerator()));
+        assertThat(task.call()).isTrue();
+    }
+}
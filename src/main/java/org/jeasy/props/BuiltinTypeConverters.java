@@ -0,0 +1,289 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Built-in converters of raw property values (mostly strings) to the type of target fields.
+ *
+ * Converters are method handles of type {@code (Object)T} (where {@code T} is the target type)
+ * resolved once per field. Converters of primitive types return primitive values and parse strings
+ * without allocating, so that they can be composed with primitive field setters without boxing.
+ * Values that are already instances of the target type, as well as values of unsupported types,
+ * are returned as is.
+ *
+ * Supported types are primitive types and their wrappers, {@link String}, {@link BigDecimal},
+ * {@link BigInteger}, enumerations, {@link Duration} (ISO-8601 format), {@link Path}, {@link File},
+ * {@link URI}, {@link URL}, {@link Class}, {@link Date}, {@link Time}, {@link Timestamp}
+ * and arrays of these types (from comma separated values).
+ *
+ * Conversions of strings to immutable types which are costly to parse ({@link BigDecimal} and {@link URI})
+ * are cached by raw value in a {@link ConvertedValueCache} per type shared by all injectors, so that each
+ * distinct value is parsed once.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class BuiltinTypeConverters {
+
+    private static final MethodHandle IDENTITY = MethodHandles.identity(Object.class);
+    private static final MethodHandle TO_ENUM;
+    private static final MethodHandle TO_ARRAY;
+    private static final MethodHandle CONVERT_CACHED;
+    private static final int CONVERTED_VALUE_CACHE_SIZE = 4096;
+    private static final Map<Class<?>, MethodHandle> CONVERTERS = new HashMap<>();
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TO_ENUM = lookup.findStatic(BuiltinTypeConverters.class, "toEnum", methodType(Enum.class, Class.class, Object.class));
+            TO_ARRAY = lookup.findStatic(BuiltinTypeConverters.class, "toArray", methodType(Object.class, Class.class, MethodHandle.class, Object.class));
+            CONVERT_CACHED = lookup.findStatic(BuiltinTypeConverters.class, "convertCached", methodType(Object.class, ConvertedValueCache.class, MethodHandle.class, Object.class));
+            register(lookup, "toByte", byte.class, Byte.class);
+            register(lookup, "toShort", short.class, Short.class);
+            register(lookup, "toInt", int.class, Integer.class);
+            register(lookup, "toLong", long.class, Long.class);
+            register(lookup, "toFloat", float.class, Float.class);
+            register(lookup, "toDouble", double.class, Double.class);
+            register(lookup, "toBoolean", boolean.class, Boolean.class);
+            register(lookup, "toChar", char.class, Character.class);
+            register(lookup, "toString", String.class);
+            registerCached(lookup, "toBigDecimal", BigDecimal.class);
+            register(lookup, "toBigInteger", BigInteger.class);
+            register(lookup, "toDuration", Duration.class);
+            register(lookup, "toPath", Path.class);
+            register(lookup, "toFile", File.class);
+            registerCached(lookup, "toURI", URI.class);
+            register(lookup, "toURL", URL.class);
+            register(lookup, "toClass", Class.class);
+            register(lookup, "toDate", Date.class);
+            register(lookup, "toTime", Time.class);
+            register(lookup, "toTimestamp", Timestamp.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private BuiltinTypeConverters() {
+
+    }
+
+    private static void register(final MethodHandles.Lookup lookup, final String name, final Class<?> type) throws ReflectiveOperationException {
+        CONVERTERS.put(type, lookup.findStatic(BuiltinTypeConverters.class, name, methodType(type, Object.class)));
+    }
+
+    private static void registerCached(final MethodHandles.Lookup lookup, final String name, final Class<?> type) throws ReflectiveOperationException {
+        MethodHandle converter = lookup.findStatic(BuiltinTypeConverters.class, name, methodType(type, Object.class)).asType(methodType(Object.class, Object.class));
+        ConvertedValueCache convertedValues = new ConvertedValueCache(CONVERTED_VALUE_CACHE_SIZE);
+        CONVERTERS.put(type, MethodHandles.insertArguments(CONVERT_CACHED, 0, convertedValues, converter).asType(methodType(type, Object.class)));
+    }
+
+    private static void register(final MethodHandles.Lookup lookup, final String name, final Class<?> primitiveType, final Class<?> wrapperType) throws ReflectiveOperationException {
+        MethodHandle converter = lookup.findStatic(BuiltinTypeConverters.class, name, methodType(primitiveType, Object.class));
+        CONVERTERS.put(primitiveType, converter);
+        CONVERTERS.put(wrapperType, converter.asType(methodType(wrapperType, Object.class)));
+    }
+
+    /**
+     * Get the built-in converter of a given type.
+     *
+     * @param type the target type
+     * @return a method handle of type {@code (Object)T}, or of type {@code (Object)Object} returning
+     * values as is if the type is not supported
+     */
+    static MethodHandle getConverter(final Class<?> type) {
+        MethodHandle converter = CONVERTERS.get(type);
+        if (converter != null) {
+            return converter;
+        }
+        if (type.isEnum()) {
+            return MethodHandles.insertArguments(TO_ENUM, 0, type).asType(methodType(type, Object.class));
+        }
+        if (type.isArray()) {
+            Class<?> componentType = type.getComponentType();
+            MethodHandle componentConverter = getConverter(componentType).asType(methodType(Object.class, Object.class));
+            return MethodHandles.insertArguments(TO_ARRAY, 0, componentType, componentConverter);
+        }
+        return IDENTITY;
+    }
+
+    private static Object convertCached(final ConvertedValueCache convertedValues, final MethodHandle converter, final Object value) throws Throwable {
+        if (!(value instanceof String)) {
+            return (Object) converter.invokeExact(value);
+        }
+        Object convertedValue = convertedValues.get((String) value);
+        if (convertedValue == null) {
+            convertedValue = (Object) converter.invokeExact(value);
+            convertedValues.put((String) value, convertedValue);
+        }
+        return convertedValue;
+    }
+
+    private static String trim(final Object value) {
+        return value.toString().trim();
+    }
+
+    private static byte toByte(final Object value) {
+        return value instanceof Number ? ((Number) value).byteValue() : Byte.parseByte(trim(value));
+    }
+
+    private static short toShort(final Object value) {
+        return value instanceof Number ? ((Number) value).shortValue() : Short.parseShort(trim(value));
+    }
+
+    private static int toInt(final Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : Integer.parseInt(trim(value));
+    }
+
+    private static long toLong(final Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(trim(value));
+    }
+
+    private static float toFloat(final Object value) {
+        return value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(trim(value));
+    }
+
+    private static double toDouble(final Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(trim(value));
+    }
+
+    private static boolean toBoolean(final Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String string = trim(value);
+        if ("true".equalsIgnoreCase(string) || "yes".equalsIgnoreCase(string) || "y".equalsIgnoreCase(string)
+                || "on".equalsIgnoreCase(string) || "1".equals(string)) {
+            return true;
+        }
+        if ("false".equalsIgnoreCase(string) || "no".equalsIgnoreCase(string) || "n".equalsIgnoreCase(string)
+                || "off".equalsIgnoreCase(string) || "0".equals(string)) {
+            return false;
+        }
+        throw new IllegalArgumentException("Unable to convert '" + string + "' to a boolean");
+    }
+
+    private static char toChar(final Object value) {
+        if (value instanceof Character) {
+            return (Character) value;
+        }
+        String string = value.toString();
+        if (string.isEmpty()) {
+            throw new IllegalArgumentException("Unable to convert an empty string to a character");
+        }
+        return string.charAt(0);
+    }
+
+    private static String toString(final Object value) {
+        return value.toString();
+    }
+
+    private static BigDecimal toBigDecimal(final Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(trim(value));
+    }
+
+    private static BigInteger toBigInteger(final Object value) {
+        return value instanceof BigInteger ? (BigInteger) value : new BigInteger(trim(value));
+    }
+
+    private static Duration toDuration(final Object value) {
+        return value instanceof Duration ? (Duration) value : Duration.parse(trim(value));
+    }
+
+    private static Path toPath(final Object value) {
+        return value instanceof Path ? (Path) value : Paths.get(trim(value));
+    }
+
+    private static File toFile(final Object value) {
+        return value instanceof File ? (File) value : new File(trim(value));
+    }
+
+    private static URI toURI(final Object value) {
+        return value instanceof URI ? (URI) value : URI.create(trim(value));
+    }
+
+    private static URL toURL(final Object value) throws MalformedURLException {
+        return value instanceof URL ? (URL) value : new URL(trim(value));
+    }
+
+    private static Class<?> toClass(final Object value) throws ClassNotFoundException {
+        if (value instanceof Class) {
+            return (Class<?>) value;
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return Class.forName(trim(value), true, classLoader != null ? classLoader : BuiltinTypeConverters.class.getClassLoader());
+    }
+
+    private static Date toDate(final Object value) {
+        return value instanceof Date ? (Date) value : Date.valueOf(trim(value));
+    }
+
+    private static Time toTime(final Object value) {
+        return value instanceof Time ? (Time) value : Time.valueOf(trim(value));
+    }
+
+    private static Timestamp toTimestamp(final Object value) {
+        return value instanceof Timestamp ? (Timestamp) value : Timestamp.valueOf(trim(value));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Enum toEnum(final Class type, final Object value) {
+        return type.isInstance(value) ? (Enum) value : Enum.valueOf(type, trim(value));
+    }
+
+    private static Object toArray(final Class<?> componentType, final MethodHandle componentConverter, final Object value) throws Throwable {
+        if (value.getClass().isArray() && value.getClass().getComponentType() == componentType) {
+            return value;
+        }
+        String string = trim(value);
+        if (string.startsWith("{") && string.endsWith("}")) {
+            string = string.substring(1, string.length() - 1);
+        }
+        String[] items = string.isEmpty() ? new String[0] : string.split(",");
+        Object array = Array.newInstance(componentType, items.length);
+        for (int i = 0; i < items.length; i++) {
+            Array.set(array, i, (Object) componentConverter.invokeExact((Object) items[i].trim()));
+        }
+        return array;
+    }
+
+}
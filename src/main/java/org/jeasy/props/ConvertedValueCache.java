@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A bounded cache of values of a given type converted from raw strings, keyed by raw value.
+ *
+ * Since entries are keyed by the raw value itself, a value changed in its source is a cache miss and never
+ * sees a stale conversion: there is nothing to invalidate. Converted values must be immutable, since they are
+ * shared between all fields of the same type.
+ *
+ * Lookups do not allocate nor lock: they only mark the entry they hit as recently used. Once full, the cache
+ * evicts entries with the CLOCK policy (an approximation of LRU): a hand sweeps entries in a circle, giving a
+ * second chance to entries marked since its last pass and evicting the first unmarked one. Insertions and
+ * evictions hold a lock, which is only taken on cache misses, so the cache never exceeds its maximum size.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class ConvertedValueCache {
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maximumSize;
+    private Iterator<Entry> clockHand = Collections.emptyIterator();
+
+    /**
+     * Create a cache of converted values.
+     *
+     * @param maximumSize the maximum number of cached values
+     */
+    ConvertedValueCache(final int maximumSize) {
+        this.maximumSize = Math.max(1, maximumSize);
+    }
+
+    /**
+     * Get the converted value of a raw value.
+     *
+     * @param value the raw value
+     * @return the converted value or {@code null} if it is not cached
+     */
+    Object get(final String value) {
+        Entry entry = entries.get(value);
+        if (entry == null) {
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.convertedValue;
+    }
+
+    /**
+     * Cache the converted value of a raw value.
+     *
+     * @param value          the raw value
+     * @param convertedValue the converted value
+     */
+    synchronized void put(final String value, final Object convertedValue) {
+        if (entries.containsKey(value)) {
+            return;
+        }
+        while (entries.size() >= maximumSize) {
+            evict();
+        }
+        entries.put(value, new Entry(value, convertedValue));
+    }
+
+    /**
+     * Get the number of cached values.
+     *
+     * @return the number of cached values
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /*
+     * Entries keep being marked by lookups while the hand sweeps them: after two full turns, the next entry is evicted anyway.
+     */
+    private void evict() {
+        int remainingChances = 2 * entries.size();
+        while (true) {
+            if (!clockHand.hasNext()) {
+                clockHand = entries.values().iterator();
+            }
+            Entry entry = clockHand.next();
+            if (entry.referenced && remainingChances-- > 0) {
+                entry.referenced = false;
+            } else {
+                entries.remove(entry.value, entry);
+                return;
+            }
+        }
+    }
+
+    private static final class Entry {
+
+        private final String value;
+        private final Object convertedValue;
+        private volatile boolean referenced;
+
+        private Entry(final String value, final Object convertedValue) {
+            this.value = value;
+            this.convertedValue = convertedValue;
+        }
+    }
+
+}
@@ -0,0 +1,84 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.jeasy.props.api.AnnotationProcessor;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Field;
+
+/**
+ * Immutable description of how to inject a property in a given field: the annotations declared
+ * on the field sorted by order, the processor and the sources of each annotation and the writer
+ * of the field (specialized with the converter of the field's type).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+@SuppressWarnings("rawtypes")
+final class FieldInjectionPlan {
+
+    private final FieldWriter fieldWriter;
+    private final Annotation[] annotations;
+    private final AnnotationProcessor[] annotationProcessors;
+    private final String[][] sources;
+
+    FieldInjectionPlan(final FieldWriter fieldWriter, final Annotation[] annotations, final AnnotationProcessor[] annotationProcessors,
+                       final String[][] sources) {
+        this.fieldWriter = fieldWriter;
+        this.annotations = annotations.clone();
+        this.annotationProcessors = annotationProcessors.clone();
+        this.sources = sources.clone();
+    }
+
+    Field getField() {
+        return fieldWriter.getField();
+    }
+
+    FieldWriter getFieldWriter() {
+        return fieldWriter;
+    }
+
+    int getAnnotationCount() {
+        return annotations.length;
+    }
+
+    Annotation getAnnotation(final int index) {
+        return annotations[index];
+    }
+
+    AnnotationProcessor getAnnotationProcessor(final int index) {
+        return annotationProcessors[index];
+    }
+
+    /**
+     * Get the sources read by an annotation of the field, as identified in {@link SourceIndex}.
+     *
+     * @param index the index of the annotation
+     * @return sources of the annotation, empty if unknown
+     */
+    String[] getSources(final int index) {
+        return sources[index].clone();
+    }
+
+}
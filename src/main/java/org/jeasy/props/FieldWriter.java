@@ -0,0 +1,136 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Component responsible for writing values in a given field.
+ *
+ * The setter of the field is resolved once (with a private lookup in the declaring class)
+ * and then invoked without any access check or accessibility flag toggling.
+ *
+ * A writer can also be specialized with a converter: the conversion and the write are then
+ * composed in a single method handle, which the JIT compiles to straight-line code.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class FieldWriter {
+
+    private static final MethodType OBJECT_SETTER_TYPE = methodType(void.class, Object.class, Object.class);
+    private static final MethodType OBJECT_CONVERTER_TYPE = methodType(Object.class, Object.class);
+
+    private final Field field;
+    private final MethodHandle setter;
+    private final MethodHandle primitiveSetter;
+    private final MethodHandle converter;
+    private final MethodHandle convertingSetter;
+
+    private FieldWriter(final Field field, final MethodHandle setter) {
+        this.field = field;
+        Class<?> type = field.getType();
+        this.setter = setter.asType(OBJECT_SETTER_TYPE);
+        this.primitiveSetter = type.isPrimitive() ? setter.asType(methodType(void.class, Object.class, type)) : null;
+        this.converter = MethodHandles.identity(Object.class);
+        this.convertingSetter = this.setter;
+    }
+
+    private FieldWriter(final FieldWriter fieldWriter, final MethodHandle converter, final MethodHandle convertingSetter) {
+        this.field = fieldWriter.field;
+        this.setter = fieldWriter.setter;
+        this.primitiveSetter = fieldWriter.primitiveSetter;
+        this.converter = converter;
+        this.convertingSetter = convertingSetter;
+    }
+
+    /**
+     * Create a {@link FieldWriter} for the given field.
+     *
+     * @param field the target field
+     * @return a new {@link FieldWriter}
+     * @throws IllegalAccessException if the field is not writable
+     */
+    static FieldWriter of(final Field field) throws IllegalAccessException {
+        MethodHandle setter = findSetter(field);
+        if (Modifier.isStatic(field.getModifiers())) {
+            setter = MethodHandles.dropArguments(setter, 0, Object.class);
+        }
+        return new FieldWriter(field, setter);
+    }
+
+    private static MethodHandle findSetter(final Field field) throws IllegalAccessException {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+            return lookup.unreflectSetter(field);
+        } catch (IllegalAccessException e) {
+            // final fields (or fields of packages that are not opened to us) can only be written once made accessible
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectSetter(field);
+        }
+    }
+
+    /**
+     * Create a copy of this writer which converts values with the given converter before writing them
+     * (see {@link #convertAndSet(Object, Object)}). When the converter returns a primitive value and the
+     * field is primitive, the converted value is written without boxing.
+     *
+     * @param converter a method handle of type {@code (Object)T}
+     * @return a new {@link FieldWriter}
+     */
+    FieldWriter withConverter(final MethodHandle converter) {
+        MethodHandle target = primitiveSetter != null && converter.type().returnType().isPrimitive() ? primitiveSetter : setter;
+        MethodHandle typedConverter = converter.asType(methodType(target.type().parameterType(1), Object.class));
+        return new FieldWriter(this, converter.asType(OBJECT_CONVERTER_TYPE), MethodHandles.filterArguments(target, 1, typedConverter));
+    }
+
+    Field getField() {
+        return field;
+    }
+
+    void convertAndSet(final Object target, final Object value) throws Throwable {
+        convertingSetter.invokeExact(target, value);
+    }
+
+    /**
+     * Convert a value without writing it (see {@link #withConverter(MethodHandle)}).
+     *
+     * @param value to convert
+     * @return the converted value, boxed if primitive
+     * @throws Throwable if the conversion fails
+     */
+    Object convert(final Object value) throws Throwable {
+        return converter.invokeExact(value);
+    }
+
+    void set(final Object target, final Object value) throws Throwable {
+        setter.invokeExact(target, value);
+    }
+
+}
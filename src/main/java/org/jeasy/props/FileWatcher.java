@@ -0,0 +1,208 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+import static org.jeasy.props.DaemonThreadFactory.newDaemonThreadFactory;
+
+/**
+ * Component responsible for running tasks when watched files change.
+ *
+ * Parent directories of watched files are registered in a single {@link WatchService} polled by
+ * a background thread. Tasks are debounced: they are scheduled after a delay which is reset by
+ * each new change of the watched file, so that a burst of changes runs the task once. A directory
+ * is watched as long as a task is registered for one of its files.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+class FileWatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileWatcher.class);
+
+    private final HotReloadingScheduler scheduler;
+    private final Map<Path, WatchKey> watchedDirectories = new HashMap<>();
+    private final Map<Path, List<Registration>> registrations = new HashMap<>();
+    private WatchService watchService;
+
+    FileWatcher(final HotReloadingScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Run a task when the given file changes.
+     *
+     * @param file          the file to watch
+     * @param task          the task to run
+     * @param debounceDelay the delay in milliseconds to wait for further changes before running the task
+     * @return the registration of the task, to be cancelled to stop watching the file, or null if the file cannot be watched
+     */
+    synchronized Registration watch(final Path file, final Runnable task, final long debounceDelay) {
+        Path path = file.toAbsolutePath().normalize();
+        Path directory = path.getParent();
+        try {
+            if (!watchedDirectories.containsKey(directory)) {
+                watchedDirectories.put(directory, directory.register(getWatchService(), ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Unable to watch file '" + path + "'", e);
+            return null;
+        }
+        Registration registration = new Registration(path, task, debounceDelay);
+        registrations.computeIfAbsent(path, p -> new ArrayList<>()).add(registration);
+        return registration;
+    }
+
+    private synchronized void unwatch(final Registration registration) {
+        List<Registration> fileRegistrations = registrations.get(registration.file);
+        if (fileRegistrations == null || !fileRegistrations.remove(registration) || !fileRegistrations.isEmpty()) {
+            return;
+        }
+        registrations.remove(registration.file);
+        Path directory = registration.file.getParent();
+        for (Path file : registrations.keySet()) {
+            if (file.getParent().equals(directory)) {
+                return;
+            }
+        }
+        WatchKey watchKey = watchedDirectories.remove(directory);
+        if (watchKey != null) {
+            watchKey.cancel();
+        }
+    }
+
+    /**
+     * Stop watching files.
+     */
+    synchronized void close() {
+        registrations.clear();
+        watchedDirectories.clear();
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOGGER.warn("Unable to close watch service", e);
+            }
+        }
+    }
+
+    private WatchService getWatchService() throws IOException {
+        if (watchService == null) {
+            watchService = FileSystems.getDefault().newWatchService();
+            newDaemonThreadFactory().newThread(this::processEvents).start();
+        }
+        return watchService;
+    }
+
+    private void processEvents() {
+        while (true) {
+            WatchKey watchKey;
+            try {
+                watchKey = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Path directory = (Path) watchKey.watchable();
+            Set<Registration> changedRegistrations = new HashSet<>();
+            for (WatchEvent<?> event : watchKey.pollEvents()) {
+                synchronized (this) {
+                    if (event.kind() == OVERFLOW) { // events may have been lost, consider all files of the directory changed
+                        registrations.forEach((file, fileRegistrations) -> {
+                            if (file.getParent().equals(directory)) {
+                                changedRegistrations.addAll(fileRegistrations);
+                            }
+                        });
+                    } else {
+                        changedRegistrations.addAll(registrations.getOrDefault(directory.resolve((Path) event.context()), new ArrayList<>()));
+                    }
+                }
+            }
+            changedRegistrations.forEach(Registration::schedule);
+            watchKey.reset();
+        }
+    }
+
+    /**
+     * A task run when a watched file changes.
+     */
+    final class Registration {
+
+        private final Path file;
+        private final Runnable task;
+        private final long debounceDelay;
+        private ScheduledFuture<?> scheduledTask;
+        private boolean cancelled;
+
+        private Registration(final Path file, final Runnable task, final long debounceDelay) {
+            this.file = file;
+            this.task = task;
+            this.debounceDelay = debounceDelay;
+        }
+
+        /**
+         * Stop running the task when the file changes, and stop watching the file if no other task is registered for it.
+         */
+        void cancel() {
+            synchronized (this) {
+                cancelled = true;
+                if (scheduledTask != null) {
+                    scheduledTask.cancel(false);
+                }
+            }
+            unwatch(this);
+        }
+
+        private synchronized void schedule() {
+            if (cancelled) {
+                return;
+            }
+            if (scheduledTask != null) {
+                scheduledTask.cancel(false);
+            }
+            scheduledTask = scheduler.schedule(task, debounceDelay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+}
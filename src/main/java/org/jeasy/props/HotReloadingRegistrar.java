@@ -24,39 +24,279 @@
 package org.jeasy.props;
 
 import org.jeasy.props.annotations.HotReload;
-import org.jeasy.props.api.PropertiesInjector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
-
-import static org.jeasy.props.DaemonThreadFactory.newDaemonThreadFactory;
-import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Component responsible for registering hot reloading tasks for a given object.
  *
+ * Objects are tracked by identity with weak references: once an object is garbage collected,
+ * its task is cancelled and removed from the source index.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 class HotReloadingRegistrar {
 
-    private final Map<Object, Runnable> hotReloadingTasks = new HashMap<>();
-    private final ScheduledExecutorService scheduledExecutorService = newSingleThreadScheduledExecutor(newDaemonThreadFactory());
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotReloadingRegistrar.class);
+    private static final int DEFAULT_POOL_SIZE = Runtime.getRuntime().availableProcessors();
 
-    void registerHotReloadingTask(final PropertiesInjector propertiesInjector, final Object target) {
+    private final Map<TargetReference, Registration> registrations = new ConcurrentHashMap<>();
+    private final ReferenceQueue<Object> collectedTargets = new ReferenceQueue<>();
+    private final SourceIndex sourceIndex = new SourceIndex();
+    private final TargetLocks targetLocks = new TargetLocks();
+    private int poolSize = DEFAULT_POOL_SIZE;
+    private boolean virtualThreads;
+    private int maxConcurrentReloads = DEFAULT_POOL_SIZE;
+    private HotReloadingScheduler scheduler;
+    private FileWatcher fileWatcher;
+    private volatile boolean closed;
+
+    void registerHotReloadingTask(final PropertiesInjectorImpl propertiesInjector, final Object target, final InjectionPlan injectionPlan) {
+        expungeCollectedTargets();
         if (shouldBeHotReloaded(target)) {
-            HotReload hotReload = target.getClass().getAnnotation(HotReload.class);
-            long period = hotReload.period();
-            TimeUnit unit = hotReload.unit();
-            PropertiesInjectionTask propertiesInjectionTask = new PropertiesInjectionTask(propertiesInjector, target);
-            scheduledExecutorService.scheduleAtFixedRate(propertiesInjectionTask, 0, period, unit);
-            hotReloadingTasks.put(target, propertiesInjectionTask);
+            synchronized (this) {
+                if (closed) {
+                    LOGGER.warn("Properties injector is closed, properties of object '" + target + "' will not be hot reloaded");
+                    return;
+                }
+                TargetReference targetReference = new TargetReference(target, collectedTargets);
+                if (registrations.containsKey(targetReference)) {
+                    return;
+                }
+                HotReload hotReload = target.getClass().getAnnotation(HotReload.class);
+                long period = hotReload.period();
+                TimeUnit unit = hotReload.unit();
+                HotReloadingScheduler hotReloadingScheduler = getScheduler();
+                PropertiesInjectionTask task = new PropertiesInjectionTask(propertiesInjector, target, hotReload.atomic());
+                Registration registration = new Registration(targetReference, task);
+                Runnable propertiesInjectionTask = hotReloadingScheduler.newTask(() -> {
+                    if (task.isTargetCollected()) {
+                        unregister(targetReference);
+                    } else {
+                        task.run();
+                    }
+                });
+                Set<String> sources = sourceIndex.register(task, injectionPlan);
+                boolean polling = true;
+                if (hotReload.watchFiles()) {
+                    boolean watched = watchFileSources(registration, sources, hotReload.debounceDelay());
+                    polling = !(readsOnlyFiles(injectionPlan) && watched);
+                }
+                if (polling) {
+                    registration.scheduledTask = hotReloadingScheduler.scheduleAtFixedRate(propertiesInjectionTask, period, hotReload.jitter(), unit);
+                }
+                registrations.put(targetReference, registration);
+                if (task.getLock() != null) {
+                    targetLocks.put(targetReference, targetReference.hashCode(), task.getLock());
+                }
+            }
+        }
+    }
+
+    /**
+     * Stop hot reloading the given object.
+     *
+     * @param target a hot reloadable object
+     */
+    void unregisterHotReloadingTask(final Object target) {
+        expungeCollectedTargets();
+        unregister(new TargetReference(target, null));
+    }
+
+    /**
+     * Stop hot reloading all objects, and stop hot reloading threads. Once closed, no object can be registered,
+     * so objects are unregistered and threads are stopped without holding the lock guarding registrations.
+     */
+    void close() {
+        FileWatcher closedFileWatcher;
+        HotReloadingScheduler closedScheduler;
+        synchronized (this) {
+            closed = true;
+            closedFileWatcher = fileWatcher;
+            closedScheduler = scheduler;
+        }
+        for (TargetReference targetReference : registrations.keySet()) {
+            unregister(targetReference);
+        }
+        if (closedFileWatcher != null) {
+            closedFileWatcher.close();
+        }
+        if (closedScheduler != null) {
+            closedScheduler.shutdown();
+        }
+    }
+
+    /**
+     * Get the lock guarding atomic reloads of the given object. This is called on each read of the object,
+     * so the lock is looked up without allocating a reference to the object.
+     *
+     * @param target a hot reloadable object
+     * @return the lock of the object, or null if its reloads are not atomic
+     */
+    StampedLock getLock(final Object target) {
+        return targetLocks.get(target);
+    }
+
+    private void unregister(final TargetReference targetReference) {
+        Registration registration = registrations.remove(targetReference);
+        if (registration != null) {
+            if (registration.scheduledTask != null) {
+                registration.scheduledTask.cancel(false);
+            }
+            registration.fileWatches.forEach(FileWatcher.Registration::cancel);
+            sourceIndex.unregister(registration.task);
+            targetLocks.remove(registration.targetReference, registration.targetReference.hashCode());
+            // wait for a run in progress, and prevent runs already triggered
+            registration.task.cancel();
+        }
+    }
+
+    private void expungeCollectedTargets() {
+        Reference<?> reference;
+        while ((reference = collectedTargets.poll()) != null) {
+            unregister((TargetReference) reference);
+        }
+    }
+
+    synchronized void setPoolSize(final int poolSize) {
+        checkNotStarted();
+        this.poolSize = poolSize;
+    }
+
+    synchronized void setVirtualThreads(final boolean virtualThreads) {
+        checkNotStarted();
+        this.virtualThreads = virtualThreads;
+    }
+
+    synchronized void setMaxConcurrentReloads(final int maxConcurrentReloads) {
+        checkNotStarted();
+        this.maxConcurrentReloads = maxConcurrentReloads;
+    }
+
+    private void checkNotStarted() {
+        if (scheduler != null) {
+            throw new IllegalStateException("Hot reloading scheduler must be configured before the first hot reloadable object is registered");
+        }
+    }
+
+    private synchronized HotReloadingScheduler getScheduler() {
+        if (scheduler == null) {
+            scheduler = new HotReloadingScheduler(poolSize, virtualThreads, maxConcurrentReloads);
+        }
+        return scheduler;
+    }
+
+    private synchronized FileWatcher getFileWatcher() {
+        if (fileWatcher == null) {
+            fileWatcher = new FileWatcher(getScheduler());
         }
+        return fileWatcher;
+    }
+
+    /*
+     * Watch files read by an object, with the debounce delay of the object. When a file changes, only
+     * fields of the object reading it are reloaded. A file is watched as long as an object reading it
+     * is registered: watches of an object are cancelled when it is unregistered or garbage collected.
+     */
+    private synchronized boolean watchFileSources(final Registration registration, final Set<String> sources, final long debounceDelay) {
+        boolean watched = true;
+        for (String source : sources) {
+            if (source.startsWith(SourceIndex.FILE_SOURCE_PREFIX)) {
+                Runnable reloadingTask = getScheduler().newTask(() -> {
+                    if (registration.task.isTargetCollected()) {
+                        unregister(registration.targetReference);
+                    } else {
+                        sourceIndex.reload(source, registration.task);
+                    }
+                });
+                FileWatcher.Registration fileWatch = getFileWatcher().watch(SourceIndex.toPath(source), reloadingTask, debounceDelay);
+                if (fileWatch != null) {
+                    registration.fileWatches.add(fileWatch);
+                } else {
+                    watched = false;
+                }
+            }
+        }
+        return watched;
     }
 
     private boolean shouldBeHotReloaded(final Object target) {
-        return target.getClass().isAnnotationPresent(HotReload.class) && !hotReloadingTasks.containsKey(target);
+        return target.getClass().isAnnotationPresent(HotReload.class) && !registrations.containsKey(new TargetReference(target, null));
+    }
+
+    /*
+     * Return true if all annotated fields are only loaded from files of the file system.
+     */
+    private boolean readsOnlyFiles(final InjectionPlan injectionPlan) {
+        for (FieldInjectionPlan fieldInjectionPlan : injectionPlan.getFieldInjectionPlans()) {
+            for (int i = 0; i < fieldInjectionPlan.getAnnotationCount(); i++) {
+                String[] sources = fieldInjectionPlan.getSources(i);
+                if (sources.length == 0) {
+                    return false;
+                }
+                for (String source : sources) {
+                    if (!source.startsWith(SourceIndex.FILE_SOURCE_PREFIX)) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
+    private static class Registration {
+
+        private final TargetReference targetReference;
+        private final PropertiesInjectionTask task;
+        private final List<FileWatcher.Registration> fileWatches = new ArrayList<>();
+        private ScheduledFuture<?> scheduledTask;
+
+        private Registration(final TargetReference targetReference, final PropertiesInjectionTask task) {
+            this.targetReference = targetReference;
+            this.task = task;
+        }
+    }
+
+    /*
+     * A weak reference to a hot reloadable object, compared by identity of the referent.
+     */
+    private static class TargetReference extends WeakReference<Object> {
+
+        private final int hashCode;
+
+        private TargetReference(final Object target, final ReferenceQueue<Object> queue) {
+            super(target, queue);
+            this.hashCode = System.identityHashCode(target);
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof TargetReference)) {
+                return false;
+            }
+            Object target = get();
+            return target != null && target == ((TargetReference) other).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
     }
 
 }
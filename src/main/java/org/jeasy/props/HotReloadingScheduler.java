@@ -0,0 +1,190 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.jeasy.props.DaemonThreadFactory.newDaemonThreadFactory;
+
+/**
+ * Scheduler of hot reloading tasks.
+ *
+ * Tasks are triggered by a pool of daemon threads, and run either on these threads or on virtual
+ * threads when requested and supported by the JVM. A task is never run concurrently with itself:
+ * a task triggered while it is running is run once more when the current run completes. The number
+ * of tasks running at the same time is capped.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+class HotReloadingScheduler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HotReloadingScheduler.class);
+
+    private final ScheduledExecutorService scheduledExecutorService;
+    private final Executor executor;
+    private final Semaphore runningTasks;
+
+    /**
+     * Create a new {@link HotReloadingScheduler}.
+     *
+     * @param poolSize           number of threads triggering (and running, if virtual threads are not used) tasks
+     * @param virtualThreads     true if tasks should run on virtual threads
+     * @param maxConcurrentTasks maximum number of tasks running at the same time
+     */
+    HotReloadingScheduler(final int poolSize, final boolean virtualThreads, final int maxConcurrentTasks) {
+        ScheduledThreadPoolExecutor scheduledThreadPoolExecutor = new ScheduledThreadPoolExecutor(Math.max(1, poolSize), newDaemonThreadFactory());
+        scheduledThreadPoolExecutor.setRemoveOnCancelPolicy(true);
+        this.scheduledExecutorService = scheduledThreadPoolExecutor;
+        Executor virtualThreadExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        this.executor = virtualThreadExecutor != null ? virtualThreadExecutor : Runnable::run;
+        this.runningTasks = new Semaphore(Math.max(1, maxConcurrentTasks));
+    }
+
+    /**
+     * Wrap a task so that it is not run concurrently with itself and counts towards the cap of running tasks.
+     *
+     * @param task to wrap
+     * @return the wrapped task, to pass to other methods of this scheduler
+     */
+    Runnable newTask(final Runnable task) {
+        return new ScheduledTask(task);
+    }
+
+    /**
+     * Run a task periodically, after a random initial delay between 0 and the given jitter.
+     *
+     * @param task   to run, as returned by {@link #newTask(Runnable)}
+     * @param period between runs
+     * @param jitter maximum initial delay
+     * @param unit   of the period and the jitter
+     * @return the scheduled future of the task
+     */
+    ScheduledFuture<?> scheduleAtFixedRate(final Runnable task, final long period, final long jitter, final TimeUnit unit) {
+        long initialDelay = jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0;
+        return scheduledExecutorService.scheduleAtFixedRate(task, initialDelay, period, unit);
+    }
+
+    /**
+     * Run a task once, after the given delay.
+     *
+     * @param task  to run, as returned by {@link #newTask(Runnable)}
+     * @param delay before running the task
+     * @param unit  of the delay
+     * @return the scheduled future of the task
+     */
+    ScheduledFuture<?> schedule(final Runnable task, final long delay, final TimeUnit unit) {
+        return scheduledExecutorService.schedule(task, delay, unit);
+    }
+
+    /**
+     * Stop running tasks: scheduled tasks are cancelled, running tasks are interrupted
+     * and this method waits for them to complete.
+     */
+    void shutdown() {
+        scheduledExecutorService.shutdownNow();
+        if (executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdownNow();
+        }
+        try {
+            awaitTermination(scheduledExecutorService);
+            if (executor instanceof ExecutorService) {
+                awaitTermination((ExecutorService) executor);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitTermination(final ExecutorService executorService) throws InterruptedException {
+        while (!executorService.awaitTermination(1, TimeUnit.SECONDS)) {
+            LOGGER.warn("Waiting for hot reloading tasks to complete");
+        }
+    }
+
+    private static Executor newVirtualThreadExecutor() {
+        try {
+            return (Executor) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.warn("Virtual threads are not supported by this JVM, hot reloading tasks will run on platform threads");
+            return null;
+        }
+    }
+
+    private class ScheduledTask implements Runnable {
+
+        private final Runnable task;
+        private final AtomicInteger pendingRuns = new AtomicInteger();
+
+        ScheduledTask(final Runnable task) {
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            if (pendingRuns.getAndIncrement() == 0) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            int runs = 1;
+            do {
+                runOnce();
+                runs = pendingRuns.addAndGet(-runs);
+            } while (runs != 0);
+        }
+
+        private void runOnce() {
+            try {
+                runningTasks.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                task.run();
+            } catch (VirtualMachineError e) {
+                throw e;
+            } catch (Throwable e) {
+                // keep the task scheduled whatever the failure of this run
+                LOGGER.error("Unable to run hot reloading task", e);
+            } finally {
+                runningTasks.release();
+            }
+        }
+    }
+
+}
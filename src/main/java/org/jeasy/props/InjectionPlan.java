@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable description of how to inject properties in objects of a given type.
+ * A plan is built once per type and reused for all subsequent injections.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class InjectionPlan {
+
+    private final Class<?> type;
+    private final List<FieldInjectionPlan> fieldInjectionPlans;
+    private final List<int[]> independentFieldGroups;
+
+    InjectionPlan(final Class<?> type, final List<FieldInjectionPlan> fieldInjectionPlans) {
+        this.type = type;
+        this.fieldInjectionPlans = Collections.unmodifiableList(new ArrayList<>(fieldInjectionPlans));
+        this.independentFieldGroups = Collections.unmodifiableList(groupFieldsBySource(this.fieldInjectionPlans));
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Get plans of declared and inherited fields having at least one annotation.
+     *
+     * @return field injection plans
+     */
+    List<FieldInjectionPlan> getFieldInjectionPlans() {
+        return fieldInjectionPlans;
+    }
+
+    /**
+     * Get groups of fields which can be resolved independently of each other: fields of different
+     * groups do not read any common source (see {@link FieldInjectionPlan#getSources(int)}), nor share
+     * the processor of an annotation with unknown sources. Groups and fields within groups are sorted
+     * by field index.
+     *
+     * @return indexes of fields of each group
+     */
+    List<int[]> getIndependentFieldGroups() {
+        return independentFieldGroups;
+    }
+
+    /*
+     * Union-find of field indexes, two fields being linked when they read a common source. Fields annotated
+     * with custom annotations (whose sources are unknown) are linked when they share an annotation processor,
+     * which may not be thread-safe.
+     */
+    private static List<int[]> groupFieldsBySource(final List<FieldInjectionPlan> fieldInjectionPlans) {
+        int[] parents = new int[fieldInjectionPlans.size()];
+        Map<String, Integer> fieldsBySource = new HashMap<>();
+        Map<Object, Integer> fieldsByProcessor = new IdentityHashMap<>();
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+            FieldInjectionPlan fieldInjectionPlan = fieldInjectionPlans.get(i);
+            for (int j = 0; j < fieldInjectionPlan.getAnnotationCount(); j++) {
+                String[] sources = fieldInjectionPlan.getSources(j);
+                if (sources.length == 0) {
+                    link(parents, i, fieldsByProcessor.putIfAbsent(fieldInjectionPlan.getAnnotationProcessor(j), i));
+                }
+                for (String source : sources) {
+                    link(parents, i, fieldsBySource.putIfAbsent(source, i));
+                }
+            }
+        }
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < parents.length; i++) {
+            groups.computeIfAbsent(find(parents, i), root -> new ArrayList<>()).add(i);
+        }
+        List<int[]> independentFieldGroups = new ArrayList<>();
+        for (List<Integer> group : groups.values()) {
+            independentFieldGroups.add(group.stream().mapToInt(Integer::intValue).toArray());
+        }
+        return independentFieldGroups;
+    }
+
+    private static void link(final int[] parents, final int field, final Integer otherField) {
+        if (otherField != null) {
+            parents[find(parents, field)] = find(parents, otherField);
+        }
+    }
+
+    private static int find(final int[] parents, final int field) {
+        int root = field;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        return root;
+    }
+
+}
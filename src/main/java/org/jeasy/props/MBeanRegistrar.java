@@ -30,6 +30,8 @@ import org.slf4j.LoggerFactory;
 import javax.management.MBeanServer;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Component responsible for registering a JMX MBean for a given object.
@@ -43,15 +45,18 @@ class MBeanRegistrar {
 
     private final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
 
+    /**
+     * Objects registered by this registrar, by MBean name.
+     */
+    private final Map<ObjectName, Object> registeredObjects = new ConcurrentHashMap<>();
+
     void registerMBeanFor(final Object object) {
         if (shouldBeManaged(object)) {
-            Manageable manageable = object.getClass().getAnnotation(Manageable.class);
-            String name = manageable.name().trim().isEmpty() ? object.getClass().getName() : manageable.name();
-            ObjectName objectName;
             try {
-                objectName = new ObjectName(JMX_OBJECT_NAME_PREFIX + "name=" + name);
+                ObjectName objectName = getObjectName(object);
                 if (!mBeanServer.isRegistered(objectName)) {
                     mBeanServer.registerMBean(object, objectName);
+                    registeredObjects.put(objectName, object);
                 }
             } catch (Exception e) {
                 LOGGER.error("Unable to register a JMX MBean for object '" + object + "'", e);
@@ -59,6 +64,43 @@ class MBeanRegistrar {
         }
     }
 
+    void unregisterMBeanFor(final Object object) {
+        if (shouldBeManaged(object)) {
+            try {
+                ObjectName objectName = getObjectName(object);
+                if (registeredObjects.remove(objectName, object)) {
+                    unregisterMBean(objectName);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Unable to unregister the JMX MBean of object '" + object + "'", e);
+            }
+        }
+    }
+
+    void unregisterAll() {
+        for (ObjectName objectName : registeredObjects.keySet()) {
+            if (registeredObjects.remove(objectName) != null) {
+                try {
+                    unregisterMBean(objectName);
+                } catch (Exception e) {
+                    LOGGER.error("Unable to unregister JMX MBean '" + objectName + "'", e);
+                }
+            }
+        }
+    }
+
+    private void unregisterMBean(final ObjectName objectName) throws Exception {
+        if (mBeanServer.isRegistered(objectName)) {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+
+    private ObjectName getObjectName(final Object object) throws Exception {
+        Manageable manageable = object.getClass().getAnnotation(Manageable.class);
+        String name = manageable.name().trim().isEmpty() ? object.getClass().getName() : manageable.name();
+        return new ObjectName(JMX_OBJECT_NAME_PREFIX + "name=" + name);
+    }
+
     private boolean shouldBeManaged(Object object) {
         return object.getClass().isAnnotationPresent(Manageable.class);
     }
@@ -23,33 +23,89 @@
  */
 package org.jeasy.props;
 
-import org.jeasy.props.api.PropertiesInjector;
 import org.jeasy.props.api.PropertyInjectionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.ref.WeakReference;
+import java.util.BitSet;
+import java.util.concurrent.locks.StampedLock;
+
 /**
  * Background task for configuration hot reloading.
  *
+ * Values injected by the task are kept between runs, so that fields whose value has not changed
+ * are not written again (a field modified by the application in the meantime is thus not reset
+ * until its configured value changes). Atomic tasks publish all changed values at once under
+ * the write lock of the task.
+ *
+ * The target object is weakly referenced: the task does nothing once the target is garbage collected.
+ * Once cancelled, the task does nothing either: cancellation waits for a run in progress to complete.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 class PropertiesInjectionTask implements Runnable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertiesInjectionTask.class);
 
-    private final PropertiesInjector injector;
+    private final PropertiesInjectorImpl injector;
+
+    private final WeakReference<Object> target;
+
+    private final StampedLock lock;
 
-    private final Object target;
+    private Object[] injectedValues;
 
-    PropertiesInjectionTask(PropertiesInjector injector, Object target) {
+    private boolean cancelled;
+
+    PropertiesInjectionTask(PropertiesInjectorImpl injector, Object target) {
+        this(injector, target, false);
+    }
+
+    PropertiesInjectionTask(PropertiesInjectorImpl injector, Object target, boolean atomic) {
         this.injector = injector;
-        this.target = target;
+        this.target = new WeakReference<>(target);
+        this.lock = atomic ? new StampedLock() : null;
+    }
+
+    StampedLock getLock() {
+        return lock;
+    }
+
+    /**
+     * Cancel this task, waiting for a run in progress (if any) to complete. Later runs do nothing.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+    }
+
+    boolean isTargetCollected() {
+        return target.get() == null;
     }
 
     @Override
-    public void run() {
+    public synchronized void run() {
+        if (cancelled) {
+            return;
+        }
+        run(null);
+    }
+
+    /**
+     * Reload the given fields of the target object only.
+     *
+     * @param fields indexes of the fields to reload in the injection plan of the target object, or null for all fields
+     */
+    synchronized void run(final BitSet fields) {
+        if (cancelled) {
+            return;
+        }
+        Object target = this.target.get();
+        if (target == null) {
+            return;
+        }
         try {
-            injector.injectProperties(target);
+            injectedValues = injector.injectFields(target, injectedValues, fields, lock);
         } catch (PropertyInjectionException e) {
             LOGGER.error("Unable to inject properties in object '" + target + "'", e);
         }
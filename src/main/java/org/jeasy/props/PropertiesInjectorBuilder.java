@@ -27,7 +27,9 @@ import org.jeasy.props.api.AnnotationProcessor;
 import org.jeasy.props.api.PropertiesInjector;
 import org.jeasy.props.api.TypeConverter;
 
+import javax.sql.DataSource;
 import java.lang.annotation.Annotation;
+import java.util.concurrent.Executor;
 
 /**
  * A builder to create {@link PropertiesInjector} instances.
@@ -90,6 +92,70 @@ public class PropertiesInjectorBuilder {
         return this;
     }
 
+    /**
+     * Register a data source to use for properties loaded with a given database configuration
+     * (see {@link org.jeasy.props.annotations.DBProperty#configuration()}).
+     *
+     * @param configuration the database configuration properties file name
+     * @param dataSource    the data source to get connections from
+     * @return this instance of @{link PropertiesInjectorBuilder}
+     */
+    public PropertiesInjectorBuilder registerDataSource(final String configuration, final DataSource dataSource) {
+        propertiesInjector.registerDataSource(configuration, dataSource);
+        return this;
+    }
+
+    /**
+     * Resolve fields of an object concurrently on the given executor (for example a {@link java.util.concurrent.ForkJoinPool}
+     * or an executor of virtual threads), instead of sequentially in the injecting thread. Fields reading a common
+     * source (the same file, database configuration, JNDI name, etc) are still resolved sequentially, as well as
+     * fields of custom annotations sharing a processor, and all fields are written once all of them are resolved,
+     * in the usual field order. Disabled by default.
+     *
+     * @param executor the executor resolving fields, or null to resolve fields sequentially
+     * @return this instance of @{link PropertiesInjectorBuilder}
+     */
+    public PropertiesInjectorBuilder parallelResolution(final Executor executor) {
+        propertiesInjector.setResolutionExecutor(executor);
+        return this;
+    }
+
+    /**
+     * Set the number of threads used to reload the configuration of hot reloadable objects
+     * (see {@link org.jeasy.props.annotations.HotReload}). Defaults to the number of available processors.
+     *
+     * @param poolSize the number of hot reloading threads
+     * @return this instance of @{link PropertiesInjectorBuilder}
+     */
+    public PropertiesInjectorBuilder hotReloadingPoolSize(final int poolSize) {
+        propertiesInjector.setHotReloadingPoolSize(poolSize);
+        return this;
+    }
+
+    /**
+     * Run configuration reloads of hot reloadable objects on virtual threads, if supported by the JVM
+     * (reloads are then only triggered by the hot reloading threads). Defaults to false.
+     *
+     * @param virtualThreads true if reloads should run on virtual threads
+     * @return this instance of @{link PropertiesInjectorBuilder}
+     */
+    public PropertiesInjectorBuilder hotReloadingVirtualThreads(final boolean virtualThreads) {
+        propertiesInjector.setHotReloadingVirtualThreads(virtualThreads);
+        return this;
+    }
+
+    /**
+     * Set the maximum number of configuration reloads running at the same time. Further reloads
+     * wait for a running reload to complete. Defaults to the number of available processors.
+     *
+     * @param maxConcurrentReloads the maximum number of concurrent reloads
+     * @return this instance of @{link PropertiesInjectorBuilder}
+     */
+    public PropertiesInjectorBuilder maxConcurrentReloads(final int maxConcurrentReloads) {
+        propertiesInjector.setMaxConcurrentReloads(maxConcurrentReloads);
+        return this;
+    }
+
     /**
      * Build a {@link PropertiesInjector} instance.
      *
@@ -24,13 +24,25 @@
 package org.jeasy.props;
 
 import org.jeasy.props.api.AnnotationProcessor;
+import org.jeasy.props.api.InjectionReport;
 import org.jeasy.props.api.PropertiesInjector;
 import org.jeasy.props.api.PropertyInjectionException;
 import org.jeasy.props.api.TypeConverter;
 
+import javax.sql.DataSource;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
 
 /**
  * The core implementation of the {@link PropertiesInjector} interface.
@@ -42,34 +54,325 @@ final class PropertiesInjectorImpl implements PropertiesInjector {
     private final PropertyInjector propertyInjector;
     private final MBeanRegistrar mBeanRegistrar;
     private final HotReloadingRegistrar hotReloadingRegistrar;
+    private volatile ClassValue<InjectionPlan> injectionPlans;
+    private volatile Executor resolutionExecutor;
 
     PropertiesInjectorImpl() {
         propertyInjector = new PropertyInjector();
         mBeanRegistrar = new MBeanRegistrar();
         hotReloadingRegistrar = new HotReloadingRegistrar();
+        injectionPlans = newInjectionPlansCache();
     }
 
     @Override
     public void injectProperties(final Object object) throws PropertyInjectionException {
-        // Retrieve declared and inherited fields
-        List<Field> fields = ReflectionUtils.getAllFields(object);
+        injectProperties(object, null);
+    }
+
+    /**
+     * Inject properties in the given object asynchronously: independent groups of fields (see
+     * {@link InjectionPlan#getIndependentFieldGroups()}) are resolved concurrently, fields of a group
+     * one after the other, and all fields are written once all of them are resolved. Failures (including
+     * failures to introspect the class of the object) are reported through the returned future.
+     */
+    @Override
+    public CompletableFuture<Void> injectPropertiesAsync(final Object object, final Executor executor) {
+        InjectionPlan injectionPlan;
+        try {
+            injectionPlan = injectionPlans.get(object.getClass());
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        List<FieldInjectionPlan> fieldInjectionPlans = injectionPlan.getFieldInjectionPlans();
+        Object[] resolvedValues = new Object[fieldInjectionPlans.size()];
+        List<CompletableFuture<Void>> resolutions = new ArrayList<>();
+        for (int[] group : injectionPlan.getIndependentFieldGroups()) {
+            CompletableFuture<Void> resolution = CompletableFuture.completedFuture(null);
+            for (int i : group) {
+                resolution = resolution
+                        .thenCompose(previous -> propertyInjector.resolvePropertyAsync(fieldInjectionPlans.get(i), object, executor))
+                        .thenAccept(value -> resolvedValues[i] = value);
+            }
+            resolutions.add(resolution);
+        }
+        return CompletableFuture.allOf(resolutions.toArray(new CompletableFuture<?>[0])).thenRun(() -> {
+            injectResolvedFields(injectionPlan, object, resolvedValues);
+            hotReloadingRegistrar.registerHotReloadingTask(this, object, injectionPlan);
+            mBeanRegistrar.registerMBeanFor(object);
+        });
+    }
+
+    /**
+     * Inject properties in the given objects class by class: values of each class's fields are resolved
+     * once (annotation processors only depend on the annotation and the field), and then converted and
+     * written in every object of the class.
+     */
+    @Override
+    public InjectionReport injectProperties(final Collection<?> objects) {
+        Map<Class<?>, List<Object>> objectsByType = new LinkedHashMap<>();
+        for (Object object : objects) {
+            objectsByType.computeIfAbsent(object.getClass(), type -> new ArrayList<>()).add(object);
+        }
+        Map<Object, PropertyInjectionException> failures = new IdentityHashMap<>();
+        for (Map.Entry<Class<?>, List<Object>> entry : objectsByType.entrySet()) {
+            InjectionPlan injectionPlan = injectionPlans.get(entry.getKey());
+            List<Object> targets = entry.getValue();
+            Object[] resolvedValues;
+            try {
+                resolvedValues = resolveFields(injectionPlan, targets.get(0));
+            } catch (PropertyInjectionException e) {
+                targets.forEach(target -> failures.put(target, e));
+                continue;
+            }
+            for (Object target : targets) {
+                try {
+                    injectResolvedFields(injectionPlan, target, resolvedValues);
+                    hotReloadingRegistrar.registerHotReloadingTask(this, target, injectionPlan);
+                    mBeanRegistrar.registerMBeanFor(target);
+                } catch (PropertyInjectionException e) {
+                    failures.put(target, e);
+                }
+            }
+        }
+        return new InjectionReport(objects.size(), failures);
+    }
+
+    private Object[] resolveFields(final InjectionPlan injectionPlan, final Object object) {
+        Executor executor = resolutionExecutor;
+        if (executor != null && injectionPlan.getIndependentFieldGroups().size() > 1) {
+            return resolveFieldsInParallel(injectionPlan, object, null, executor);
+        }
+        List<FieldInjectionPlan> fieldInjectionPlans = injectionPlan.getFieldInjectionPlans();
+        Object[] resolvedValues = new Object[fieldInjectionPlans.size()];
+        for (int i = 0; i < resolvedValues.length; i++) {
+            resolvedValues[i] = propertyInjector.resolveProperty(fieldInjectionPlans.get(i), object);
+        }
+        return resolvedValues;
+    }
 
-        // Inject properties in each field
-        for (Field field : fields) {
-            propertyInjector.injectProperty(field, object);
+    private void injectResolvedFields(final InjectionPlan injectionPlan, final Object object, final Object[] resolvedValues) {
+        List<FieldInjectionPlan> fieldInjectionPlans = injectionPlan.getFieldInjectionPlans();
+        for (int i = 0; i < resolvedValues.length; i++) {
+            if (resolvedValues[i] != null) {
+                propertyInjector.doInjectProperty(resolvedValues[i], fieldInjectionPlans.get(i), object);
+            }
         }
+    }
+
+    /**
+     * Inject properties in the given object, skipping fields whose value has not changed
+     * since a previous injection.
+     *
+     * @param object         the target object
+     * @param injectedValues values returned by a previous injection in the same object, or {@code null}
+     * @return values injected in each annotated field, to pass to the next injection in the same object
+     * @throws PropertyInjectionException if an error occurs during property injection
+     */
+    Object[] injectProperties(final Object object, final Object[] injectedValues) throws PropertyInjectionException {
+        // Retrieve the (cached) injection plan of the object's type
+        InjectionPlan injectionPlan = injectionPlans.get(object.getClass());
+
+        // Inject properties in each annotated field
+        Object[] values = injectFields(injectionPlan, object, injectedValues, null, null);
 
         // Register a hot reloading background task and a JMX MBean if needed
-        hotReloadingRegistrar.registerHotReloadingTask(this, object);
+        hotReloadingRegistrar.registerHotReloadingTask(this, object, injectionPlan);
         mBeanRegistrar.registerMBeanFor(object);
+        return values;
+    }
+
+    /**
+     * Inject properties in the given fields of an object only, skipping fields whose value has not changed
+     * since a previous injection.
+     *
+     * @param object         the target object
+     * @param injectedValues values returned by a previous injection in the same object, or {@code null}
+     * @param fields         indexes of the fields to inject in the injection plan of the object's type, or null for all fields
+     * @param lock           the lock under which values are published atomically, or null to write values one by one
+     * @return values injected in each annotated field, to pass to the next injection in the same object
+     * @throws PropertyInjectionException if an error occurs during property injection
+     */
+    Object[] injectFields(final Object object, final Object[] injectedValues, final BitSet fields, final StampedLock lock) throws PropertyInjectionException {
+        return injectFields(injectionPlans.get(object.getClass()), object, injectedValues, fields, lock);
+    }
+
+    private Object[] injectFields(final InjectionPlan injectionPlan, final Object object, final Object[] injectedValues,
+                                  final BitSet fields, final StampedLock lock) {
+        List<FieldInjectionPlan> fieldInjectionPlans = injectionPlan.getFieldInjectionPlans();
+        Object[] values = injectedValues != null && injectedValues.length == fieldInjectionPlans.size()
+                ? injectedValues : new Object[fieldInjectionPlans.size()];
+        Executor executor = resolutionExecutor;
+        Object[] resolvedValues = executor != null && injectionPlan.getIndependentFieldGroups().size() > 1
+                ? resolveFieldsInParallel(injectionPlan, object, fields, executor) : null;
+        if (lock != null) {
+            return injectFieldsAtomically(fieldInjectionPlans, object, values, resolvedValues, fields, lock);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (fields == null || fields.get(i)) {
+                if (resolvedValues == null) {
+                    values[i] = propertyInjector.injectProperty(fieldInjectionPlans.get(i), object, values[i]);
+                } else {
+                    Object value = resolvedValues[i];
+                    if (value != null && !value.equals(values[i])) {
+                        propertyInjector.doInjectProperty(value, fieldInjectionPlans.get(i), object);
+                    }
+                    values[i] = value;
+                }
+            }
+        }
+        return values;
+    }
+
+    /*
+     * Resolve independent groups of fields concurrently (fields reading a common source are
+     * resolved sequentially in the same group), and wait for all of them before writing anything.
+     * When several groups fail, the failure of the first group is reported.
+     */
+    private Object[] resolveFieldsInParallel(final InjectionPlan injectionPlan, final Object object, final BitSet fields, final Executor executor) {
+        List<FieldInjectionPlan> fieldInjectionPlans = injectionPlan.getFieldInjectionPlans();
+        Object[] resolvedValues = new Object[fieldInjectionPlans.size()];
+        List<CompletableFuture<Void>> resolutions = new ArrayList<>();
+        for (int[] group : injectionPlan.getIndependentFieldGroups()) {
+            resolutions.add(CompletableFuture.runAsync(() -> {
+                for (int i : group) {
+                    if (fields == null || fields.get(i)) {
+                        resolvedValues[i] = propertyInjector.resolveProperty(fieldInjectionPlans.get(i), object);
+                    }
+                }
+            }, executor));
+        }
+        try {
+            CompletableFuture.allOf(resolutions.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            for (CompletableFuture<Void> resolution : resolutions) {
+                try {
+                    resolution.join();
+                } catch (CompletionException failure) {
+                    if (failure.getCause() instanceof PropertyInjectionException) {
+                        throw (PropertyInjectionException) failure.getCause();
+                    }
+                    throw new PropertyInjectionException("Unable to resolve properties of object '" + object + "'", failure.getCause());
+                }
+            }
+        }
+        return resolvedValues;
+    }
+
+    /*
+     * Resolve and convert changed values first, then write them all under the write lock,
+     * so that a failed resolution or conversion leaves the object unchanged.
+     */
+    private Object[] injectFieldsAtomically(final List<FieldInjectionPlan> fieldInjectionPlans, final Object object, final Object[] values,
+                                            final Object[] parallelResolvedValues, final BitSet fields, final StampedLock lock) {
+        Object[] resolvedValues = values.clone();
+        Object[] convertedValues = new Object[values.length];
+        BitSet changedFields = new BitSet(values.length);
+        for (int i = 0; i < values.length; i++) {
+            if (fields == null || fields.get(i)) {
+                Object value = parallelResolvedValues != null ? parallelResolvedValues[i] : propertyInjector.resolveProperty(fieldInjectionPlans.get(i), object);
+                if (value != null && !value.equals(values[i])) {
+                    convertedValues[i] = propertyInjector.convertProperty(value, fieldInjectionPlans.get(i), object);
+                    changedFields.set(i);
+                }
+                resolvedValues[i] = value;
+            }
+        }
+        if (!changedFields.isEmpty()) {
+            long stamp = lock.writeLock();
+            try {
+                for (int i = changedFields.nextSetBit(0); i >= 0; i = changedFields.nextSetBit(i + 1)) {
+                    propertyInjector.setProperty(convertedValues[i], fieldInjectionPlans.get(i), object);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+        return resolvedValues;
+    }
+
+    @Override
+    public void unregister(final Object object) {
+        hotReloadingRegistrar.unregisterHotReloadingTask(object);
+        mBeanRegistrar.unregisterMBeanFor(object);
+    }
+
+    @Override
+    public void close() {
+        hotReloadingRegistrar.close();
+        mBeanRegistrar.unregisterAll();
+        propertyInjector.close();
+    }
+
+    @Override
+    public <T, R> R read(final T object, final Function<? super T, ? extends R> reader) {
+        StampedLock lock = hotReloadingRegistrar.getLock(object);
+        if (lock == null) {
+            return reader.apply(object);
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            try {
+                R result = reader.apply(object);
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // the reader may fail on a partially reloaded configuration, retry under the read lock
+                if (lock.validate(stamp)) {
+                    throw e;
+                }
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return reader.apply(object);
+        } finally {
+            lock.unlockRead(stamp);
+        }
     }
 
     void registerAnnotationProcessor(final Class<? extends Annotation> annotation, final AnnotationProcessor annotationProcessor) {
         propertyInjector.addAnnotationProcessor(annotation, annotationProcessor);
+        injectionPlans = newInjectionPlansCache();
     }
 
     void registerTypeConverter(Class<?> type, TypeConverter typeConverter) {
         propertyInjector.addTypeConverter(type, typeConverter);
+        injectionPlans = newInjectionPlansCache();
+    }
+
+    void setResolutionExecutor(final Executor resolutionExecutor) {
+        this.resolutionExecutor = resolutionExecutor;
+    }
+
+    void setHotReloadingPoolSize(final int poolSize) {
+        hotReloadingRegistrar.setPoolSize(poolSize);
+    }
+
+    void setHotReloadingVirtualThreads(final boolean virtualThreads) {
+        hotReloadingRegistrar.setVirtualThreads(virtualThreads);
+    }
+
+    void setMaxConcurrentReloads(final int maxConcurrentReloads) {
+        hotReloadingRegistrar.setMaxConcurrentReloads(maxConcurrentReloads);
+    }
+
+    void registerDataSource(final String configuration, final DataSource dataSource) {
+        propertyInjector.addDataSource(configuration, dataSource);
+    }
+
+    /*
+     * Plans are cached with a ClassValue so that they are attached to the introspected
+     * class itself and do not prevent its class loader from being garbage collected.
+     * The cache is replaced (and not cleared) when processors or converters change.
+     */
+    private ClassValue<InjectionPlan> newInjectionPlansCache() {
+        return new ClassValue<InjectionPlan>() {
+            @Override
+            protected InjectionPlan computeValue(Class<?> type) {
+                return propertyInjector.createInjectionPlan(type);
+            }
+        };
     }
 
 }
@@ -35,7 +35,6 @@ import org.jeasy.props.annotations.SystemProperty;
 import org.jeasy.props.api.AnnotationProcessor;
 import org.jeasy.props.api.PropertyInjectionException;
 import org.jeasy.props.api.TypeConverter;
-import org.apache.commons.beanutils.ConvertUtils;
 import org.jeasy.props.processors.DBPropertyAnnotationProcessor;
 import org.jeasy.props.processors.EnvironmentVariableAnnotationProcessor;
 import org.jeasy.props.processors.I18NPropertyAnnotationProcessor;
@@ -48,19 +47,33 @@ import org.jeasy.props.processors.SystemPropertyAnnotationProcessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.sql.DataSource;
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 import static java.lang.String.format;
+import static java.lang.invoke.MethodType.methodType;
 
 /**
  * Central component responsible for injecting a declared property in the corresponding field.
  *
+ * Annotation processors are registered in a small dispatch table indexed by annotation type, along with an
+ * accessor of the {@code order} attribute of the annotation type (if any), resolved once at registration, and
+ * a function returning the sources read by built-in annotations (see {@link SourceIndex}).
+ * Annotations without a registered processor are ignored.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 @SuppressWarnings("unchecked,rawtypes")
@@ -68,79 +81,287 @@ class PropertyInjector {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertyInjector.class);
     private static final String WARNING = "Unable to inject value from annotation '%s' on field '%s' of type '%s' in class '%s'";
-    private static final List<Class<? extends Annotation>> builtinAnnotations = Arrays.asList(
-            SystemProperty.class, Property.class, I18NProperty.class, Properties.class, DBProperty.class,
-            JNDIProperty.class, MavenProperty.class, ManifestProperty.class, EnvironmentVariable.class);
-    private final Map<Class<? extends Annotation>, AnnotationProcessor> annotationProcessors;
+    private static final MethodHandle TYPE_CONVERTER;
+    private static final MethodHandle DEFAULT_ORDER = MethodHandles.dropArguments(MethodHandles.constant(int.class, 0), 0, Annotation.class);
+    private static final Function<Annotation, String[]> NO_SOURCES = annotation -> new String[0];
+
+    static {
+        try {
+            TYPE_CONVERTER = MethodHandles.publicLookup().findVirtual(TypeConverter.class, "convert", methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /*
+     * Dispatch table: annotation types, their processors, accessors of their order and their sources, at the same index.
+     */
+    private Class<? extends Annotation>[] annotationTypes;
+    private AnnotationProcessor[] annotationProcessors;
+    private MethodHandle[] orderAccessors;
+    private Function[] sourceAccessors;
     private final Map<Class<?>, TypeConverter<?, ?>> typeConverters;
 
     PropertyInjector() {
-        annotationProcessors = new HashMap<>();
+        annotationTypes = new Class[0];
+        annotationProcessors = new AnnotationProcessor[0];
+        orderAccessors = new MethodHandle[0];
+        sourceAccessors = new Function[0];
         typeConverters = new HashMap<>();
-        // TODO the day we decide to remove the dependency to apache commons-beanutils, register built-in converters here
-        // See https://github.com/j-easy/easy-props/commit/1f677c0469813b6f206871bc4a7037ee41f7a975
 
         //register built-in annotation processors
-        annotationProcessors.put(SystemProperty.class, new SystemPropertyAnnotationProcessor());
-        annotationProcessors.put(Property.class, new PropertyAnnotationProcessor());
-        annotationProcessors.put(I18NProperty.class, new I18NPropertyAnnotationProcessor());
-        annotationProcessors.put(Properties.class, new PropertiesAnnotationProcessor());
-        annotationProcessors.put(DBProperty.class, new DBPropertyAnnotationProcessor());
-        annotationProcessors.put(JNDIProperty.class, new JNDIPropertyAnnotationProcessor());
-        annotationProcessors.put(MavenProperty.class, new MavenPropertyAnnotationProcessor());
-        annotationProcessors.put(ManifestProperty.class, new ManifestPropertyAnnotationProcessor());
-        annotationProcessors.put(EnvironmentVariable.class, new EnvironmentVariableAnnotationProcessor());
-    }
-
-    void injectProperty(final Field field, final Object object) throws PropertyInjectionException {
-        List<? extends Annotation> sortedAnnotations = sortAnnotationsByOrder(field);
-        for (Annotation annotation : sortedAnnotations) {
-            AnnotationProcessor annotationProcessor = annotationProcessors.get(annotation.annotationType());
-            Object value = getValue(field, object, annotation, annotationProcessor);
+        addAnnotationProcessor(SystemProperty.class, new SystemPropertyAnnotationProcessor(),
+                systemProperty -> new String[]{"system:" + systemProperty.value()});
+        addAnnotationProcessor(Property.class, new PropertyAnnotationProcessor(),
+                property -> new String[]{SourceIndex.toResourceSource(property.source())});
+        addAnnotationProcessor(I18NProperty.class, new I18NPropertyAnnotationProcessor(),
+                i18nProperty -> new String[]{"bundle:" + i18nProperty.bundle()});
+        addAnnotationProcessor(Properties.class, new PropertiesAnnotationProcessor(),
+                properties -> properties.defaultValue().trim().isEmpty()
+                        ? new String[]{SourceIndex.toResourceSource(properties.value())}
+                        : new String[]{SourceIndex.toResourceSource(properties.value()), SourceIndex.toResourceSource(properties.defaultValue())});
+        addAnnotationProcessor(DBProperty.class, new DBPropertyAnnotationProcessor(),
+                dbProperty -> new String[]{"db:" + dbProperty.configuration()});
+        addAnnotationProcessor(JNDIProperty.class, new JNDIPropertyAnnotationProcessor(),
+                jndiProperty -> new String[]{"jndi:" + jndiProperty.value()});
+        addAnnotationProcessor(MavenProperty.class, new MavenPropertyAnnotationProcessor(),
+                mavenProperty -> new String[]{"maven:" + mavenProperty.groupId() + ":" + mavenProperty.artifactId()});
+        addAnnotationProcessor(ManifestProperty.class, new ManifestPropertyAnnotationProcessor(),
+                manifestProperty -> new String[]{"manifest:" + manifestProperty.jar()});
+        addAnnotationProcessor(EnvironmentVariable.class, new EnvironmentVariableAnnotationProcessor(),
+                environmentVariable -> new String[]{"env:" + environmentVariable.value()});
+    }
+
+    InjectionPlan createInjectionPlan(final Class<?> type) {
+        List<FieldInjectionPlan> fieldInjectionPlans = new ArrayList<>();
+        // declared fields first, then inherited fields
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                Annotation[] declaredAnnotations = field.getDeclaredAnnotations();
+                if (countProcessedAnnotations(declaredAnnotations) > 0) {
+                    fieldInjectionPlans.add(createFieldInjectionPlan(createFieldWriter(field), declaredAnnotations));
+                }
+            }
+        }
+        return new InjectionPlan(type, fieldInjectionPlans);
+    }
+
+    private int countProcessedAnnotations(final Annotation[] declaredAnnotations) {
+        int count = 0;
+        for (Annotation annotation : declaredAnnotations) {
+            if (indexOf(annotation.annotationType()) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /*
+     * Keep annotations having a processor, sorted by order (annotations of the same order keep their declaration order).
+     */
+    private FieldInjectionPlan createFieldInjectionPlan(final FieldWriter fieldWriter, final Annotation[] declaredAnnotations) {
+        int count = countProcessedAnnotations(declaredAnnotations);
+        Annotation[] annotations = new Annotation[count];
+        AnnotationProcessor[] processors = new AnnotationProcessor[count];
+        String[][] sources = new String[count][];
+        int[] orders = new int[count];
+        int size = 0;
+        for (Annotation annotation : declaredAnnotations) {
+            int index = indexOf(annotation.annotationType());
+            if (index < 0) {
+                continue;
+            }
+            int order = getOrder(annotation, index, fieldWriter.getField());
+            int position = size++;
+            while (position > 0 && orders[position - 1] > order) {
+                annotations[position] = annotations[position - 1];
+                processors[position] = processors[position - 1];
+                sources[position] = sources[position - 1];
+                orders[position] = orders[position - 1];
+                position--;
+            }
+            annotations[position] = annotation;
+            processors[position] = annotationProcessors[index];
+            sources[position] = (String[]) sourceAccessors[index].apply(annotation);
+            orders[position] = order;
+        }
+        FieldWriter convertingFieldWriter = fieldWriter.withConverter(getConverter(fieldWriter.getField().getType()));
+        return new FieldInjectionPlan(convertingFieldWriter, annotations, processors, sources);
+    }
+
+    private MethodHandle getConverter(final Class<?> type) {
+        TypeConverter typeConverter = typeConverters.get(type);
+        if (typeConverter != null) {
+            return TYPE_CONVERTER.bindTo(typeConverter);
+        }
+        return BuiltinTypeConverters.getConverter(type);
+    }
+
+    private FieldWriter createFieldWriter(final Field field) {
+        try {
+            return FieldWriter.of(field);
+        } catch (IllegalAccessException e) {
+            throw new PropertyInjectionException(format("Unable to access field '%s' of type '%s' in class '%s'",
+                    field.getName(), field.getType().getName(), field.getDeclaringClass().getName()), e);
+        }
+    }
+
+    /**
+     * Inject a property in the given object, unless the resolved value is equal to the previously injected value.
+     *
+     * @param fieldInjectionPlan the injection plan of the target field
+     * @param object             the target object
+     * @param previousValue      the value previously injected in the field, or {@code null}
+     * @return the resolved value, or {@code null} if no value was resolved
+     * @throws PropertyInjectionException if an error occurs during property injection
+     */
+    Object injectProperty(final FieldInjectionPlan fieldInjectionPlan, final Object object, final Object previousValue) throws PropertyInjectionException {
+        Object value = resolveProperty(fieldInjectionPlan, object);
+        if (value != null && !value.equals(previousValue)) {
+            doInjectProperty(value, fieldInjectionPlan, object);
+        }
+        return value;
+    }
+
+    /**
+     * Resolve the value of a property without injecting it.
+     *
+     * @param fieldInjectionPlan the injection plan of the target field
+     * @param object             the target object
+     * @return the resolved value, or {@code null} if no value was resolved
+     * @throws PropertyInjectionException if an error occurs during property resolution
+     */
+    Object resolveProperty(final FieldInjectionPlan fieldInjectionPlan, final Object object) throws PropertyInjectionException {
+        Field field = fieldInjectionPlan.getField();
+        for (int i = 0; i < fieldInjectionPlan.getAnnotationCount(); i++) {
+            Annotation annotation = fieldInjectionPlan.getAnnotation(i);
+            Object value = getValue(field, object, annotation, fieldInjectionPlan.getAnnotationProcessor(i));
             if (value != null) {
-                doInjectProperty(value, field, object);
-                break;
+                return value;
             } else {
                 LOGGER.warn(String.format(WARNING, annotation, field.getName(), field.getType().getName(), object.getClass().getName()));
             }
         }
+        return null;
     }
 
-    private List<? extends Annotation> sortAnnotationsByOrder(Field field) {
-        class AnnotationWithOrder implements Comparable<AnnotationWithOrder> {
-            final Annotation annotation;
-            final int order;
+    /**
+     * Resolve the value of a property asynchronously without injecting it. Annotations of the field
+     * are processed one after the other, until one of them resolves a value.
+     *
+     * @param fieldInjectionPlan the injection plan of the target field
+     * @param object             the target object
+     * @param executor           the executor to use for blocking work
+     * @return a future of the resolved value (or of {@code null} if no value was resolved),
+     * completed exceptionally with a {@link PropertyInjectionException} if an error occurs during property resolution
+     */
+    CompletableFuture<Object> resolvePropertyAsync(final FieldInjectionPlan fieldInjectionPlan, final Object object, final Executor executor) {
+        return resolvePropertyAsync(fieldInjectionPlan, object, executor, 0);
+    }
 
-            AnnotationWithOrder(Annotation annotation, int order) {
-                this.annotation = annotation;
-                this.order = order;
+    private CompletableFuture<Object> resolvePropertyAsync(final FieldInjectionPlan fieldInjectionPlan, final Object object, final Executor executor, final int index) {
+        if (index == fieldInjectionPlan.getAnnotationCount()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Field field = fieldInjectionPlan.getField();
+        Annotation annotation = fieldInjectionPlan.getAnnotation(index);
+        CompletableFuture<Object> value;
+        try {
+            value = fieldInjectionPlan.getAnnotationProcessor(index).processAnnotationAsync(annotation, field, executor);
+        } catch (Exception e) {
+            value = CompletableFuture.failedFuture(e);
+        }
+        return value.handle((result, throwable) -> {
+            if (throwable != null) {
+                Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+                throw new CompletionException(new PropertyInjectionException(format(WARNING, annotation, field.getName(), field.getType().getName(), object.getClass().getName()), cause));
+            }
+            return result;
+        }).thenCompose(result -> {
+            if (result != null) {
+                return CompletableFuture.completedFuture(result);
             }
+            LOGGER.warn(String.format(WARNING, annotation, field.getName(), field.getType().getName(), object.getClass().getName()));
+            return resolvePropertyAsync(fieldInjectionPlan, object, executor, index + 1);
+        });
+    }
 
-            @Override
-            public int compareTo(AnnotationWithOrder o) {
-                return Integer.compare(this.order, o.order);
+    /**
+     * Convert a resolved value to the type of the target field, without injecting it.
+     *
+     * @param value              the resolved value
+     * @param fieldInjectionPlan the injection plan of the target field
+     * @param object             the target object
+     * @return the converted value
+     * @throws PropertyInjectionException if the value cannot be converted
+     */
+    Object convertProperty(final Object value, final FieldInjectionPlan fieldInjectionPlan, final Object object) throws PropertyInjectionException {
+        try {
+            return fieldInjectionPlan.getFieldWriter().convert(value);
+        } catch (Throwable e) {
+            throw newInjectionException(value, fieldInjectionPlan, object, e);
+        }
+    }
+
+    /**
+     * Write a converted value in the target field.
+     *
+     * @param convertedValue     the converted value
+     * @param fieldInjectionPlan the injection plan of the target field
+     * @param object             the target object
+     * @throws PropertyInjectionException if the value cannot be written
+     */
+    void setProperty(final Object convertedValue, final FieldInjectionPlan fieldInjectionPlan, final Object object) throws PropertyInjectionException {
+        try {
+            fieldInjectionPlan.getFieldWriter().set(object, convertedValue);
+        } catch (Throwable e) {
+            throw newInjectionException(convertedValue, fieldInjectionPlan, object, e);
+        }
+    }
+
+    private int indexOf(final Class<? extends Annotation> annotationType) {
+        for (int i = 0; i < annotationTypes.length; i++) {
+            if (annotationTypes[i] == annotationType) {
+                return i;
             }
         }
-        return Arrays.stream(field.getDeclaredAnnotations())
-                .filter(annotation -> !builtinAnnotations.contains(annotation.getClass()))
-                .map(annotation -> new AnnotationWithOrder(annotation, getOrder(annotation)))
-                .sorted()
-                .map(annotationWithOrder -> annotationWithOrder.annotation)
-                .collect(Collectors.toList());
+        return -1;
+    }
+
+    private int getOrder(final Annotation annotation, final int index, final Field field) {
+        try {
+            return (int) orderAccessors[index].invokeExact(annotation);
+        } catch (Throwable e) {
+            throw new PropertyInjectionException(format("Unable to get the order of annotation '%s' on field '%s' in class '%s'",
+                    annotation, field.getName(), field.getDeclaringClass().getName()), e);
+        }
     }
 
-    private int getOrder(Annotation annotation) {
-        // FIXME No inheritance in Java annotations.. is there a better way to do that?
-        if (annotation instanceof Property) return ((Property) annotation).order();
-        if (annotation instanceof Properties) return ((Properties) annotation).order();
-        if (annotation instanceof SystemProperty) return ((SystemProperty) annotation).order();
-        if (annotation instanceof EnvironmentVariable) return ((EnvironmentVariable) annotation).order();
-        if (annotation instanceof MavenProperty) return ((MavenProperty) annotation).order();
-        if (annotation instanceof I18NProperty) return ((I18NProperty) annotation).order();
-        if (annotation instanceof ManifestProperty) return ((ManifestProperty) annotation).order();
-        if (annotation instanceof DBProperty) return ((DBProperty) annotation).order();
-        if (annotation instanceof JNDIProperty) return ((JNDIProperty) annotation).order();
-        return 0;
+    /*
+     * Accessor of the "int order()" attribute of an annotation type, returning 0 if there is no such attribute.
+     */
+    private static MethodHandle getOrderAccessor(final Class<? extends Annotation> annotationType) {
+        Method method;
+        try {
+            method = annotationType.getMethod("order");
+        } catch (NoSuchMethodException e) {
+            return DEFAULT_ORDER;
+        }
+        if (method.getReturnType() != int.class) {
+            return DEFAULT_ORDER;
+        }
+        try {
+            return MethodHandles.publicLookup().unreflect(method).asType(methodType(int.class, Annotation.class));
+        } catch (IllegalAccessException e) {
+            try {
+                // annotation types which are not public
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method).asType(methodType(int.class, Annotation.class));
+            } catch (IllegalAccessException | RuntimeException ex) {
+                LOGGER.warn("Unable to access the order of annotation '{}', annotations of this type will have order 0", annotationType.getName());
+                return DEFAULT_ORDER;
+            }
+        }
     }
 
     private <A extends Annotation> Object getValue(Field field, Object object, A annotation, AnnotationProcessor<A> annotationProcessor) throws PropertyInjectionException {
@@ -151,36 +372,74 @@ class PropertyInjector {
         }
     }
     
-    private void doInjectProperty(Object value, Field field, Object object) throws PropertyInjectionException {
+    void doInjectProperty(Object value, FieldInjectionPlan fieldInjectionPlan, Object object) throws PropertyInjectionException {
         try {
-        Object typedValue = convert(value, field.getType());
-        setProperty(typedValue, field, object);
-        } catch (Exception e) {
-            throw new PropertyInjectionException(format(WARNING, value, field.getName(), field.getType().getName(), object.getClass().getName()), e);
+            fieldInjectionPlan.getFieldWriter().convertAndSet(object, value);
+        } catch (Throwable e) {
+            throw newInjectionException(value, fieldInjectionPlan, object, e);
         }
     }
 
-    private Object convert(Object value, Class<?> type) {
-        TypeConverter converter = typeConverters.get(type);
-        if (converter != null) {
-            return converter.convert(value);
-        }
-        return ConvertUtils.convert(value, type);
+    private PropertyInjectionException newInjectionException(Object value, FieldInjectionPlan fieldInjectionPlan, Object object, Throwable cause) {
+        Field field = fieldInjectionPlan.getField();
+        return new PropertyInjectionException(format(WARNING, value, field.getName(), field.getType().getName(), object.getClass().getName()), cause);
     }
 
-    private void setProperty(Object value, Field field, Object targetObject) throws Exception {
-        boolean access = field.isAccessible();
-        field.setAccessible(true);
-        field.set(targetObject, value);
-        field.setAccessible(access);
+    /*
+     * Sources read by custom processors are unknown, even when they replace a built-in processor.
+     */
+    void addAnnotationProcessor(final Class<? extends Annotation> annotation, final AnnotationProcessor annotationProcessor) {
+        addAnnotationProcessor((Class) annotation, annotationProcessor, (Function) NO_SOURCES);
     }
 
-    void addAnnotationProcessor(final Class<? extends Annotation> annotation, final AnnotationProcessor annotationProcessor) {
-        annotationProcessors.put(annotation, annotationProcessor);
+    private <A extends Annotation> void addAnnotationProcessor(final Class<A> annotation, final AnnotationProcessor<A> annotationProcessor,
+                                                               final Function<A, String[]> sourceAccessor) {
+        int index = indexOf(annotation);
+        if (index >= 0) {
+            annotationProcessors[index] = annotationProcessor;
+            sourceAccessors[index] = sourceAccessor;
+            return;
+        }
+        index = annotationTypes.length;
+        annotationTypes = Arrays.copyOf(annotationTypes, index + 1);
+        annotationProcessors = Arrays.copyOf(annotationProcessors, index + 1);
+        orderAccessors = Arrays.copyOf(orderAccessors, index + 1);
+        sourceAccessors = Arrays.copyOf(sourceAccessors, index + 1);
+        annotationTypes[index] = annotation;
+        annotationProcessors[index] = annotationProcessor;
+        orderAccessors[index] = getOrderAccessor(annotation);
+        sourceAccessors[index] = sourceAccessor;
+    }
+
+    void addDataSource(final String configuration, final DataSource dataSource) {
+        int index = indexOf(DBProperty.class);
+        AnnotationProcessor annotationProcessor = index >= 0 ? annotationProcessors[index] : null;
+        if (!(annotationProcessor instanceof DBPropertyAnnotationProcessor)) {
+            throw new IllegalStateException("Data sources can only be registered with the built-in processor of " + DBProperty.class.getName());
+        }
+        ((DBPropertyAnnotationProcessor) annotationProcessor).registerDataSource(configuration, dataSource);
     }
 
     void addTypeConverter(final Class<?> type, final TypeConverter typeConverter) {
         typeConverters.put(type, typeConverter);
     }
 
+    /*
+     * Release resources of registered annotation processors: built-in database connection
+     * pools, and custom processors implementing AutoCloseable.
+     */
+    void close() {
+        for (AnnotationProcessor annotationProcessor : annotationProcessors) {
+            try {
+                if (annotationProcessor instanceof DBPropertyAnnotationProcessor) {
+                    ((DBPropertyAnnotationProcessor) annotationProcessor).close();
+                } else if (annotationProcessor instanceof AutoCloseable) {
+                    ((AutoCloseable) annotationProcessor).close();
+                }
+            } catch (Exception e) {
+                LOGGER.error("Unable to close annotation processor '" + annotationProcessor + "'", e);
+            }
+        }
+    }
+
 }
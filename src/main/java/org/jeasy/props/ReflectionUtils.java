@@ -1,69 +0,0 @@
-/*
- * The MIT License
- *
- *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
- *
- *   Permission is hereby granted, free of charge, to any person obtaining a copy
- *   of this software and associated documentation files (the "Software"), to deal
- *   in the Software without restriction, including without limitation the rights
- *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
- *   copies of the Software, and to permit persons to whom the Software is
- *   furnished to do so, subject to the following conditions:
- *
- *   The above copyright notice and this permission notice shall be included in
- *   all copies or substantial portions of the Software.
- *
- *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
- *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
- *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
- *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
- *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
- *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
- *   THE SOFTWARE.
- */
-package org.jeasy.props;
-
-import java.lang.reflect.Field;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-
-/**
- * Reflection utilities.
- *
- * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
- */
-class ReflectionUtils {
-
-    private ReflectionUtils() {
-
-    }
-
-    /**
-     * Get declared and inherited fields of a given object.
-     *
-     * @param object to introspect
-     * @return declared and inherited fields
-     */
-    public static List<Field> getAllFields(final Object object) {
-        List<Field> allFields = new ArrayList<>();
-        allFields.addAll(getDeclaredFields(object));
-        allFields.addAll(getInheritedFields(object));
-        return allFields;
-    }
-
-    private static List<Field> getDeclaredFields(final Object object) {
-        return Arrays.asList(object.getClass().getDeclaredFields());
-    }
-
-    private static List<Field> getInheritedFields(final Object object) {
-        List<Field> inheritedFields = new ArrayList<>();
-        Class<?> clazz = object.getClass();
-        while (clazz.getSuperclass() != null) {
-            Class<?> superclass = clazz.getSuperclass();
-            inheritedFields.addAll(Arrays.asList(superclass.getDeclaredFields()));
-            clazz = superclass;
-        }
-        return inheritedFields;
-    }
-}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reverse index from configuration sources to the fields of hot reloadable objects reading them.
+ *
+ * Sources are identified by a prefixed name: {@code file:} followed by the absolute path of a properties
+ * file, {@code classpath:} followed by a resource name, {@code db:} followed by a database configuration,
+ * and {@code jndi:}, {@code env:}, {@code system:}, {@code bundle:}, {@code manifest:} and {@code maven:}
+ * for other built-in annotations. Sources of annotations are resolved by the dispatch table of
+ * {@link PropertyInjector} when creating injection plans. Fields of custom annotations have no known source.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class SourceIndex {
+
+    static final String FILE_SOURCE_PREFIX = "file:";
+    private static final String CLASSPATH_SOURCE_PREFIX = "classpath:";
+
+    private final Map<String, Map<PropertiesInjectionTask, BitSet>> dependencies = new ConcurrentHashMap<>();
+
+    /**
+     * Register fields of the target object of a hot reloading task.
+     *
+     * @param task          the hot reloading task of the object
+     * @param injectionPlan the injection plan of the object's type
+     * @return sources read by the object
+     */
+    Set<String> register(final PropertiesInjectionTask task, final InjectionPlan injectionPlan) {
+        Map<String, BitSet> fieldsBySource = new HashMap<>();
+        List<FieldInjectionPlan> fieldInjectionPlans = injectionPlan.getFieldInjectionPlans();
+        for (int i = 0; i < fieldInjectionPlans.size(); i++) {
+            FieldInjectionPlan fieldInjectionPlan = fieldInjectionPlans.get(i);
+            for (int j = 0; j < fieldInjectionPlan.getAnnotationCount(); j++) {
+                for (String source : fieldInjectionPlan.getSources(j)) {
+                    fieldsBySource.computeIfAbsent(source, s -> new BitSet()).set(i);
+                }
+            }
+        }
+        for (Map.Entry<String, BitSet> entry : fieldsBySource.entrySet()) {
+            dependencies.computeIfAbsent(entry.getKey(), s -> new ConcurrentHashMap<>()).put(task, entry.getValue());
+        }
+        return fieldsBySource.keySet();
+    }
+
+    /**
+     * Unregister fields of the target object of a hot reloading task.
+     *
+     * @param task the hot reloading task of the object
+     */
+    void unregister(final PropertiesInjectionTask task) {
+        for (Map<PropertiesInjectionTask, BitSet> tasks : dependencies.values()) {
+            tasks.remove(task);
+        }
+    }
+
+    /**
+     * Reload fields reading the given source in the target object of a hot reloading task.
+     *
+     * @param source the source that changed
+     * @param task   the hot reloading task of the object
+     */
+    void reload(final String source, final PropertiesInjectionTask task) {
+        Map<PropertiesInjectionTask, BitSet> tasks = dependencies.get(source);
+        BitSet fields = tasks != null ? tasks.get(task) : null;
+        if (fields != null) {
+            task.run(fields);
+        }
+    }
+
+    /**
+     * Get the path of a file source.
+     *
+     * @param source a source starting with {@code file:}
+     * @return the path of the file
+     */
+    static Path toPath(final String source) {
+        return Paths.get(source.substring(FILE_SOURCE_PREFIX.length()));
+    }
+
+    /**
+     * Get the source of a properties resource.
+     *
+     * @param resource a file ({@code file:} prefix) or a classpath resource (optional {@code classpath:} prefix)
+     * @return the source of the resource
+     */
+    static String toResourceSource(final String resource) {
+        String name = resource.trim();
+        if (name.startsWith(FILE_SOURCE_PREFIX)) {
+            return FILE_SOURCE_PREFIX + Paths.get(name.substring(FILE_SOURCE_PREFIX.length())).toAbsolutePath().normalize();
+        }
+        if (name.startsWith(CLASSPATH_SOURCE_PREFIX)) {
+            name = name.substring(CLASSPATH_SOURCE_PREFIX.length());
+        }
+        return CLASSPATH_SOURCE_PREFIX + name;
+    }
+
+}
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Locks guarding atomic reloads of hot reloadable objects, looked up by identity of the object.
+ *
+ * Locks are looked up on each read of an object (see {@link PropertiesInjectorImpl#read}), so lookups do not
+ * allocate nor lock: they hash the object with {@link System#identityHashCode(Object)} and walk a bucket of
+ * immutable nodes holding weak references to objects. Updates are rare (once per registration) and hold a
+ * lock: they replace the chain of a single bucket, or the whole table when it grows.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class TargetLocks {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private volatile AtomicReferenceArray<Node> table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    private int size;
+
+    /**
+     * Get the lock of an object.
+     *
+     * @param target a hot reloadable object
+     * @return the lock of the object, or {@code null} if it has no lock
+     */
+    StampedLock get(final Object target) {
+        AtomicReferenceArray<Node> nodes = table;
+        int hash = System.identityHashCode(target);
+        for (Node node = nodes.get(hash & (nodes.length() - 1)); node != null; node = node.next) {
+            if (node.hash == hash && node.reference.get() == target) {
+                return node.lock;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Add the lock of an object.
+     *
+     * @param reference a reference to the object, used to remove the lock
+     * @param hash      the identity hash code of the object
+     * @param lock      the lock of the object
+     */
+    synchronized void put(final Reference<?> reference, final int hash, final StampedLock lock) {
+        AtomicReferenceArray<Node> nodes = table;
+        if (size >= nodes.length() - (nodes.length() >>> 2)) {
+            nodes = resize(nodes);
+        }
+        int index = hash & (nodes.length() - 1);
+        nodes.set(index, new Node(hash, reference, lock, nodes.get(index)));
+        size++;
+    }
+
+    /**
+     * Remove the lock of an object, even if the object has been garbage collected.
+     *
+     * @param reference the reference given when the lock was added
+     * @param hash      the identity hash code of the object
+     */
+    synchronized void remove(final Reference<?> reference, final int hash) {
+        AtomicReferenceArray<Node> nodes = table;
+        int index = hash & (nodes.length() - 1);
+        Node chain = null;
+        boolean removed = false;
+        for (Node node = nodes.get(index); node != null; node = node.next) {
+            if (node.reference == reference) {
+                removed = true;
+            } else {
+                chain = new Node(node.hash, node.reference, node.lock, chain);
+            }
+        }
+        if (removed) {
+            nodes.set(index, chain);
+            size--;
+        }
+    }
+
+    private AtomicReferenceArray<Node> resize(final AtomicReferenceArray<Node> nodes) {
+        AtomicReferenceArray<Node> resized = new AtomicReferenceArray<>(nodes.length() * 2);
+        for (int i = 0; i < nodes.length(); i++) {
+            for (Node node = nodes.get(i); node != null; node = node.next) {
+                int index = node.hash & (resized.length() - 1);
+                resized.set(index, new Node(node.hash, node.reference, node.lock, resized.get(index)));
+            }
+        }
+        table = resized;
+        return resized;
+    }
+
+    private static final class Node {
+
+        private final int hash;
+        private final Reference<?> reference;
+        private final StampedLock lock;
+        private final Node next;
+
+        private Node(final int hash, final Reference<?> reference, final StampedLock lock, final Node next) {
+            this.hash = hash;
+            this.reference = reference;
+            this.lock = lock;
+            this.next = next;
+        }
+    }
+
+}
@@ -32,7 +32,8 @@ import java.util.concurrent.TimeUnit;
 /**
  * Annotation to mark an object for hot configuration reloading.
  *
- * This will register a background thread to reload the configuration periodically in the target object.
+ * This will register a background thread to reload the configuration periodically in the target object,
+ * or when watched files change (see {@link #watchFiles()}).
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
@@ -54,4 +55,42 @@ public @interface HotReload {
      */
     TimeUnit unit() default TimeUnit.MINUTES;
 
+    /**
+     * Maximum random delay (in the unit of the period) before the first reload of each object,
+     * to spread reloads of objects with the same period over time.
+     *
+     * @return maximum random delay before the first reload
+     */
+    long jitter() default 0;
+
+    /**
+     * Flag to publish reloaded configuration atomically: all values are resolved and converted first,
+     * and then written at once under a lock of the object. Readers using
+     * {@link org.jeasy.props.api.PropertiesInjector#read} never observe a partially reloaded configuration,
+     * and a reload failing to resolve or convert a value leaves the object unchanged.
+     *
+     * @return true if reloaded configuration should be published atomically
+     */
+    boolean atomic() default false;
+
+    /**
+     * Flag to reload configuration as soon as a file source ({@code file:} prefix) of a {@link Property}
+     * or {@link Properties} field changes, using the file system's watch service.
+     *
+     * When a watched file changes, only fields loaded from this file are reloaded (in all hot reloadable
+     * objects reading it). If all annotated fields of the object are loaded from such file sources,
+     * configuration is not reloaded periodically anymore.
+     *
+     * @return true if file sources should be watched
+     */
+    boolean watchFiles() default false;
+
+    /**
+     * Delay in milliseconds to wait for further changes of watched files before reloading configuration
+     * (a burst of changes triggers a single reload).
+     *
+     * @return delay in milliseconds to wait for further changes of watched files
+     */
+    long debounceDelay() default 100;
+
 }
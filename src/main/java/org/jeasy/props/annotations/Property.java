@@ -65,6 +65,16 @@ public @interface Property {
      */
     boolean failFast() default false;
 
+    /**
+     * Flag to read the properties file lazily. In this mode, keys of the file are indexed when a property is first
+     * looked up, values are decoded only for requested keys, and the content of the file is released once all lazy
+     * properties of the file declared in the class of the field have been resolved. This is suited to large files
+     * of which few keys are read.
+     *
+     * @return true if the properties file should be read lazily
+     */
+    boolean lazy() default false;
+
     /**
      * Injection order regarding other annotations.
      *
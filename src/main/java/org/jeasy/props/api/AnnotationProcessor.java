@@ -25,6 +25,8 @@ package org.jeasy.props.api;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * Annotation processor interface.
@@ -46,4 +48,28 @@ public interface AnnotationProcessor<T extends Annotation> {
      */
     Object processAnnotation(final T annotation, final Field field) throws AnnotationProcessingException;
 
+    /**
+     * Process an annotation of type T asynchronously.
+     *
+     * By default, {@link #processAnnotation(Annotation, Field)} is run on the given executor. Processors
+     * backed by asynchronous clients may override this method to avoid blocking a thread of the executor.
+     *
+     * @param annotation the annotation to process.
+     * @param field      the target field
+     * @param executor   the executor to use for blocking work
+     * @return a future of the object to set in the annotated field or of {@code null} if the value should be ignored,
+     * completed exceptionally if an exception occurs during annotation processing
+     */
+    default CompletableFuture<Object> processAnnotationAsync(final T annotation, final Field field, final Executor executor) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            try {
+                future.complete(processAnnotation(annotation, field));
+            } catch (Throwable throwable) {
+                future.completeExceptionally(throwable);
+            }
+        });
+        return future;
+    }
+
 }
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.api;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Report of the injection of properties in several objects (see {@link PropertiesInjector#injectProperties(java.util.Collection)}).
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+public final class InjectionReport {
+
+    private final int objectCount;
+    private final Map<Object, PropertyInjectionException> failures;
+
+    /**
+     * Create a new {@link InjectionReport}.
+     *
+     * @param objectCount the number of objects in which properties were injected
+     * @param failures    failures of objects in which properties could not be injected, keyed by object identity
+     */
+    public InjectionReport(final int objectCount, final Map<Object, PropertyInjectionException> failures) {
+        this.objectCount = objectCount;
+        this.failures = Collections.unmodifiableMap(new IdentityHashMap<>(failures));
+    }
+
+    /**
+     * Get the number of objects in which properties were injected.
+     *
+     * @return the number of objects
+     */
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    /**
+     * Get the number of objects in which properties were successfully injected.
+     *
+     * @return the number of objects without failure
+     */
+    public int getSuccessCount() {
+        return objectCount - failures.size();
+    }
+
+    /**
+     * Get failures of objects in which properties could not be injected (entirely), keyed by object identity.
+     *
+     * @return failures by object
+     */
+    public Map<Object, PropertyInjectionException> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Check if properties could not be injected in some objects.
+     *
+     * @return true if there are failures
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "InjectionReport{objectCount=" + objectCount + ", failureCount=" + failures.size() + "}";
+    }
+
+}
@@ -23,12 +23,21 @@
  */
 package org.jeasy.props.api;
 
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 /**
  * Interface for java properties injector.
  *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
-public interface PropertiesInjector {
+public interface PropertiesInjector extends AutoCloseable {
 
     /**
      * Inject properties in annotated fields of the given object.
@@ -38,4 +47,82 @@ public interface PropertiesInjector {
      */
     void injectProperties(final Object object) throws PropertyInjectionException;
 
+    /**
+     * Inject properties in annotated fields of the given object asynchronously.
+     *
+     * Annotations are processed with {@link AnnotationProcessor#processAnnotationAsync}, and fields are written
+     * once all of them are resolved. By default, {@link #injectProperties(Object)} is run on the given executor.
+     *
+     * @param object   the object in which to inject properties.
+     * @param executor the executor to use for blocking work
+     * @return a future completed when properties are injected, or completed exceptionally with a
+     * {@link PropertyInjectionException} if an exception occurs during properties injection
+     */
+    default CompletableFuture<Void> injectPropertiesAsync(final Object object, final Executor executor) {
+        return CompletableFuture.runAsync(() -> injectProperties(object), executor);
+    }
+
+    /**
+     * Inject properties in annotated fields of the given objects. A failure to inject properties
+     * in an object does not prevent injecting properties in other objects.
+     *
+     * @param objects the objects in which to inject properties
+     * @return a report of failures by object
+     */
+    default InjectionReport injectProperties(final Collection<?> objects) {
+        Map<Object, PropertyInjectionException> failures = new IdentityHashMap<>();
+        for (Object object : objects) {
+            try {
+                injectProperties(object);
+            } catch (PropertyInjectionException e) {
+                failures.put(object, e);
+            }
+        }
+        return new InjectionReport(objects.size(), failures);
+    }
+
+    /**
+     * Inject properties in annotated fields of the given objects (see {@link #injectProperties(Collection)}).
+     *
+     * @param objects the objects in which to inject properties
+     * @return a report of failures by object
+     */
+    default InjectionReport injectProperties(final Stream<?> objects) {
+        return injectProperties(objects.collect(Collectors.toList()));
+    }
+
+    /**
+     * Read a consistent view of the properties of the given object.
+     *
+     * For objects annotated with {@code @HotReload(atomic = true)}, the reader never observes a partially
+     * reloaded configuration: it is first run without locking, and run again under a read lock only if
+     * a reload was published in the meantime. The reader may thus be run more than once and should not
+     * have side effects. For other objects, the reader is simply applied to the object.
+     *
+     * @param object the object to read
+     * @param reader the function reading properties of the object
+     * @param <T>    the type of the object
+     * @param <R>    the type of the result
+     * @return the result of the reader
+     */
+    default <T, R> R read(final T object, final Function<? super T, ? extends R> reader) {
+        return reader.apply(object);
+    }
+
+    /**
+     * Stop hot reloading properties of the given object and unregister its JMX MBean, if any.
+     *
+     * @param object the object to unregister
+     */
+    default void unregister(final Object object) {
+    }
+
+    /**
+     * Stop hot reloading properties of all objects, unregister JMX MBeans and release resources
+     * held by the injector (threads, watched files, database connections).
+     */
+    @Override
+    default void close() {
+    }
+
 }
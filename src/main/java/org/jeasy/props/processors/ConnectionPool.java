@@ -0,0 +1,201 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lightweight bounded pool of JDBC connections obtained from the {@link DriverManager}.
+ *
+ * Connections are reused in LIFO order. Idle connections are evicted lazily (when connections are
+ * borrowed or released) once idle for longer than the idle timeout, and are validated before being reused.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class ConnectionPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConnectionPool.class);
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    private static final long BORROW_TIMEOUT_SECONDS = 30;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final long idleTimeout;
+    private final Semaphore permits;
+
+    /**
+     * Idle connections, most recently released first (guarded by this).
+     */
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+
+    private volatile boolean closed;
+
+    /**
+     * Create a new connection pool.
+     *
+     * @param url         the database url
+     * @param user        the database user
+     * @param password    the database password
+     * @param maxSize     the maximum number of connections (borrowed and idle)
+     * @param idleTimeout the time in milliseconds after which idle connections are closed
+     */
+    ConnectionPool(final String url, final String user, final String password, final int maxSize, final long idleTimeout) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.idleTimeout = TimeUnit.MILLISECONDS.toNanos(idleTimeout);
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Borrow a connection from the pool, creating a new one if no valid idle connection is available.
+     * The connection must be given back with {@link #release(Connection, boolean)}.
+     *
+     * @return a connection
+     * @throws SQLException if no connection can be obtained
+     */
+    Connection borrow() throws SQLException {
+        acquirePermit();
+        try {
+            Connection connection;
+            while ((connection = pollIdleConnection()) != null) {
+                if (isValid(connection)) {
+                    return connection;
+                }
+                close(connection);
+            }
+            return DriverManager.getConnection(url, user, password);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Give back a borrowed connection to the pool.
+     *
+     * @param connection the borrowed connection
+     * @param broken     true if the connection should be closed instead of being reused
+     */
+    void release(final Connection connection, final boolean broken) {
+        try {
+            if (broken || closed) {
+                close(connection);
+            } else {
+                synchronized (this) {
+                    idleConnections.addFirst(new IdleConnection(connection, System.nanoTime()));
+                }
+            }
+            evictIdleConnections();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Close all idle connections. Connections borrowed at that time are closed when released.
+     */
+    void close() {
+        closed = true;
+        IdleConnection idleConnection;
+        while ((idleConnection = pollFirst()) != null) {
+            close(idleConnection.connection);
+        }
+    }
+
+    private void acquirePermit() throws SQLException {
+        try {
+            if (!permits.tryAcquire(BORROW_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timeout while waiting for a connection to " + url);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to " + url, e);
+        }
+    }
+
+    private Connection pollIdleConnection() {
+        evictIdleConnections();
+        IdleConnection idleConnection = pollFirst();
+        return idleConnection != null ? idleConnection.connection : null;
+    }
+
+    private synchronized IdleConnection pollFirst() {
+        return idleConnections.pollFirst();
+    }
+
+    private void evictIdleConnections() {
+        long now = System.nanoTime();
+        IdleConnection idleConnection;
+        while ((idleConnection = pollExpired(now)) != null) {
+            close(idleConnection.connection);
+        }
+    }
+
+    private synchronized IdleConnection pollExpired(final long now) {
+        IdleConnection oldest = idleConnections.peekLast();
+        if (oldest != null && now - oldest.releaseTime >= idleTimeout) {
+            return idleConnections.pollLast();
+        }
+        return null;
+    }
+
+    private boolean isValid(final Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void close(final Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to close connection to " + url, e);
+        }
+    }
+
+    private static final class IdleConnection {
+
+        private final Connection connection;
+        private final long releaseTime;
+
+        private IdleConnection(final Connection connection, final long releaseTime) {
+            this.connection = connection;
+            this.releaseTime = releaseTime;
+        }
+    }
+
+}
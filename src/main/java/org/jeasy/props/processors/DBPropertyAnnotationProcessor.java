@@ -28,23 +28,63 @@ import org.jeasy.props.api.AnnotationProcessingException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.String.format;
 
 /**
  * An annotation processor that loads properties from a database.
  *
+ * The properties table is read with a single query per configuration and cached as an immutable
+ * snapshot from which all fields sharing the same configuration are resolved. The snapshot is
+ * reloaded once it is older than the time-to-live configured with {@link #DB_CACHE_TTL}
+ * (in milliseconds, {@value #DEFAULT_DB_CACHE_TTL} by default). The time-to-live should be lower
+ * than the period of {@link org.jeasy.props.annotations.HotReload} beans, if any.
+ *
+ * Connections are obtained from the {@link DataSource} registered for the configuration with
+ * {@link #registerDataSource(String, DataSource)}, or looked up in JNDI with the name configured with
+ * {@link #DB_DATA_SOURCE}. Otherwise, connections are obtained from a built-in bounded pool configured
+ * with {@link #DB_POOL_MAX_SIZE} and {@link #DB_POOL_IDLE_TIMEOUT} (in milliseconds).
+ *
+ * When a version column (a number or a timestamp set to a new highest value on each insert or update) is
+ * configured with {@link #DB_TABLE_VERSION_COLUMN}, snapshots are reloaded incrementally: only rows with a
+ * version greater than or equal to the highest version already loaded are fetched and merged in the snapshot.
+ * Deleted rows cannot be detected this way: with {@link #DB_TABLE_DELETED_KEYS} set to
+ * {@value #DELETED_KEYS_REMOVE} (the default), the rows of the table are counted after each incremental
+ * reload (without transferring them). Since inserted rows are merged in the snapshot, the count only differs
+ * from the size of the snapshot when rows have been deleted (or inserted without a new version): the keys of
+ * the table (without their values) are then read, keys missing from the table are removed from the snapshot,
+ * and the table is reloaded entirely if it contains keys missing from the snapshot. With
+ * {@value #DELETED_KEYS_KEEP}, deleted keys are kept in the snapshot and rows are not counted.
+ *
+ * When {@link #DB_LOOKUP} is set to {@value #LOOKUP_KEYS} (instead of {@value #LOOKUP_TABLE}, the default),
+ * the table is not read entirely: only the keys of {@link DBProperty} fields are fetched with
+ * {@code WHERE key IN (...)} queries of {@link #DB_LOOKUP_BATCH_SIZE} keys. When a field's key has not
+ * been fetched yet, keys of all fields of the field's class sharing the same configuration are fetched
+ * at once. Snapshots are then reloaded with all keys fetched so far (the version column is not used).
+ *
+ * A query returning a checksum of the table (e.g. {@code SELECT COUNT(*), MAX(updated_at) FROM ...}, or a
+ * vendor specific checksum function) can be configured with {@link #DB_TABLE_CHECKSUM_QUERY}. It is run
+ * before each reload, which is skipped (and the snapshot kept for another time-to-live) if the checksum
+ * has not changed.
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class DBPropertyAnnotationProcessor extends AbstractAnnotationProcessor<DBProperty> {
@@ -57,13 +97,90 @@ public class DBPropertyAnnotationProcessor extends AbstractAnnotationProcessor<D
     public static final String DB_TABLE = "org.jeasy.props.db.table";
     public static final String DB_TABLE_KEY_COLUMN = "org.jeasy.props.db.table.keyColumn";
     public static final String DB_TABLE_VALUE_COLUMN = "org.jeasy.props.db.table.valueColumn";
+    public static final String DB_TABLE_VERSION_COLUMN = "org.jeasy.props.db.table.versionColumn";
+    public static final String DB_TABLE_DELETED_KEYS = "org.jeasy.props.db.table.deletedKeys";
+    public static final String DB_TABLE_CHECKSUM_QUERY = "org.jeasy.props.db.table.checksumQuery";
+    public static final String DB_CACHE_TTL = "org.jeasy.props.db.cache.ttl";
+    public static final String DB_LOOKUP = "org.jeasy.props.db.lookup";
+    public static final String DB_LOOKUP_BATCH_SIZE = "org.jeasy.props.db.lookup.batchSize";
+    public static final String DB_DATA_SOURCE = "org.jeasy.props.db.dataSource";
+    public static final String DB_POOL_MAX_SIZE = "org.jeasy.props.db.pool.maxSize";
+    public static final String DB_POOL_IDLE_TIMEOUT = "org.jeasy.props.db.pool.idleTimeout";
+
+    public static final long DEFAULT_DB_CACHE_TTL = 500;
+    public static final int DEFAULT_DB_LOOKUP_BATCH_SIZE = 100;
+    public static final int DEFAULT_DB_POOL_MAX_SIZE = 2;
+    public static final long DEFAULT_DB_POOL_IDLE_TIMEOUT = 60000;
+
+    public static final String DELETED_KEYS_REMOVE = "remove";
+    public static final String DELETED_KEYS_KEEP = "keep";
+    public static final String LOOKUP_TABLE = "table";
+    public static final String LOOKUP_KEYS = "keys";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DBPropertyAnnotationProcessor.class);
 
     /**
-     * A map holding database configuration properties file names and properties object serving as a cache.
+     * Keys of database properties read by a class and its superclasses, by database configuration.
+     */
+    private static final ClassValue<Map<String, Set<String>>> KEYS = new ClassValue<Map<String, Set<String>>>() {
+        @Override
+        protected Map<String, Set<String>> computeValue(final Class<?> type) {
+            return getKeys(type);
+        }
+    };
+
+    /**
+     * A cache of database configuration properties by file name.
      */
-    private final Map<String, Properties> dbConfigurationMap = new HashMap<>();
+    private final SourceCache<Properties> dbConfigurations = new SourceCache<>();
+
+    /**
+     * A map holding database configuration properties file names and locks guarding snapshot reloads.
+     */
+    private final Map<String, Object> snapshotLocks = new ConcurrentHashMap<>();
+
+    /**
+     * A map holding database configuration properties file names and snapshots of database properties.
+     */
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * A map holding database configuration properties file names and data sources.
+     */
+    private final Map<String, DataSource> dataSources = new ConcurrentHashMap<>();
+
+    /**
+     * A map holding database configuration properties file names and built-in connection pools.
+     */
+    private final Map<String, ConnectionPool> connectionPools = new ConcurrentHashMap<>();
+
+    /**
+     * A map holding database configuration properties file names and keys to fetch in {@value #LOOKUP_KEYS} lookup mode.
+     */
+    private final Map<String, Set<String>> lookupKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Register a data source to use for a given database configuration.
+     *
+     * @param configuration the database configuration properties file name
+     * @param dataSource    the data source to get connections from
+     */
+    public void registerDataSource(final String configuration, final DataSource dataSource) {
+        dataSources.put(configuration.trim(), dataSource);
+    }
+
+    /**
+     * Close connection pools created by this processor. Registered data sources are not closed.
+     * Closed pools are recreated if the processor is used again.
+     */
+    public void close() {
+        for (String configuration : connectionPools.keySet()) {
+            ConnectionPool connectionPool = connectionPools.remove(configuration);
+            if (connectionPool != null) {
+                connectionPool.close();
+            }
+        }
+    }
 
     @Override
     public Object processAnnotation(final DBProperty dbPropertyAnnotation, final Field field) throws AnnotationProcessingException {
@@ -78,15 +195,13 @@ public class DBPropertyAnnotationProcessor extends AbstractAnnotationProcessor<D
         rejectIfEmpty(configuration, missingAttributeValue("configuration", annotationName, field));
         rejectIfEmpty(key, missingAttributeValue("key", annotationName, field));
 
-        //check if database connection configuration is not already loaded
-        if (!dbConfigurationMap.containsKey(configuration)) {
-            loadDatabaseConfigurationProperties(configuration);
-        }
+        //load database connection configuration if not already loaded
+        dbConfigurations.get(configuration, this::loadDatabaseConfigurationProperties);
 
-        Properties dbProperties = loadDatabaseProperties(configuration);
+        Map<String, String> dbProperties = getSnapshot(configuration, field, key).properties;
 
         //check object obtained from database
-        String value = dbProperties.getProperty(key);
+        String value = dbProperties.get(key);
         if (value == null) {
             String message = String.format("Key '%s' not found in database configured with properties from file '%s'",
                     key, configuration);
@@ -102,45 +217,329 @@ public class DBPropertyAnnotationProcessor extends AbstractAnnotationProcessor<D
         return value;
     }
 
-    private Properties loadDatabaseProperties(final String configuration) throws AnnotationProcessingException {
+    private Snapshot getSnapshot(final String configuration, final Field field, final String key) throws AnnotationProcessingException {
+        boolean keyLookup = isKeyLookup(configuration);
+        long timeToLive = getTimeToLive(configuration);
+        Snapshot snapshot = snapshots.get(configuration);
+        if (isValid(snapshot, keyLookup, key, timeToLive, System.nanoTime())) {
+            return snapshot;
+        }
+        // a single thread reloads the snapshot of a configuration, others wait for it and use it
+        synchronized (snapshotLocks.computeIfAbsent(configuration, k -> new Object())) {
+            snapshot = snapshots.get(configuration);
+            long now = System.nanoTime();
+            if (!isValid(snapshot, keyLookup, key, timeToLive, now)) {
+                Set<String> keys = null;
+                if (keyLookup) {
+                    keys = lookupKeys.computeIfAbsent(configuration, k -> ConcurrentHashMap.newKeySet());
+                    keys.add(key);
+                    keys.addAll(getKeys(field.getDeclaringClass(), configuration));
+                }
+                snapshot = loadSnapshot(configuration, snapshot, keys, now);
+                snapshots.put(configuration, snapshot);
+            }
+            return snapshot;
+        }
+    }
+
+    private boolean isValid(final Snapshot snapshot, final boolean keyLookup, final String key, final long timeToLive, final long now) {
+        return snapshot != null && !(keyLookup && !snapshot.keys.contains(key)) && now - snapshot.loadTime < timeToLive;
+    }
+
+    private boolean isKeyLookup(final String configuration) throws AnnotationProcessingException {
+        Properties dbConfigurationProperties = dbConfigurations.getIfPresent(configuration);
+        String lookup = dbConfigurationProperties == null ? LOOKUP_TABLE : dbConfigurationProperties.getProperty(DB_LOOKUP, LOOKUP_TABLE).trim();
+        if (LOOKUP_KEYS.equalsIgnoreCase(lookup)) {
+            return true;
+        }
+        if (LOOKUP_TABLE.equalsIgnoreCase(lookup)) {
+            return false;
+        }
+        throw new AnnotationProcessingException(format("Invalid value '%s' of '%s' in '%s', expected '%s' or '%s'",
+                lookup, DB_LOOKUP, configuration, LOOKUP_TABLE, LOOKUP_KEYS));
+    }
+
+    /**
+     * Get keys of database properties read from a database configuration by a class and its superclasses.
+     *
+     * @param type          the class
+     * @param configuration the database configuration properties file
+     * @return the keys of database properties of the class read with the configuration
+     */
+    static Set<String> getKeys(final Class<?> type, final String configuration) {
+        return KEYS.get(type).getOrDefault(configuration, Collections.emptySet());
+    }
+
+    private static Map<String, Set<String>> getKeys(final Class<?> type) {
+        Map<String, Set<String>> keys = new HashMap<>();
+        // declared fields first, then inherited fields
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                DBProperty dbProperty = field.getAnnotation(DBProperty.class);
+                if (dbProperty != null && !dbProperty.key().trim().isEmpty()) {
+                    keys.computeIfAbsent(dbProperty.configuration().trim(), configuration -> new HashSet<>()).add(dbProperty.key().trim());
+                }
+            }
+        }
+        keys.replaceAll((configuration, configurationKeys) -> Collections.unmodifiableSet(configurationKeys));
+        return Collections.unmodifiableMap(keys);
+    }
+
+    private long getTimeToLive(final String configuration) throws AnnotationProcessingException {
+        return TimeUnit.MILLISECONDS.toNanos(getLongProperty(configuration, DB_CACHE_TTL, DEFAULT_DB_CACHE_TTL));
+    }
+
+    private long getLongProperty(final String configuration, final String name, final long defaultValue) throws AnnotationProcessingException {
+        Properties dbConfigurationProperties = dbConfigurations.getIfPresent(configuration);
+        if (dbConfigurationProperties == null) {
+            return defaultValue;
+        }
+        try {
+            return getLongProperty(dbConfigurationProperties, name, defaultValue);
+        } catch (AnnotationProcessingException e) {
+            throw new AnnotationProcessingException(format("%s in '%s'", e.getMessage(), configuration), e.getCause());
+        }
+    }
+
+    private long getLongProperty(final Properties dbConfigurationProperties, final String name, final long defaultValue) throws AnnotationProcessingException {
+        String value = dbConfigurationProperties.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new AnnotationProcessingException(format("Invalid value '%s' of '%s'", value, name), e);
+        }
+    }
+
+    private Snapshot loadSnapshot(final String configuration, final Snapshot previousSnapshot, final Set<String> keys, final long now) throws AnnotationProcessingException {
         Connection connection = null;
-        Statement statement = null;
-        ResultSet resultSet = null;
+        boolean broken = false;
         try {
-            Properties dbConfigurationProperties = dbConfigurationMap.get(configuration);
-            Class.forName(dbConfigurationProperties.getProperty(DB_DRIVER));
-            connection = getConnection(dbConfigurationProperties);
-            statement = connection.createStatement();
-            resultSet = statement.executeQuery(getSqlQuery(dbConfigurationProperties));
-            return extractProperties(resultSet, dbConfigurationProperties);
+            Properties dbConfigurationProperties = dbConfigurations.getIfPresent(configuration);
+            connection = getConnection(configuration, dbConfigurationProperties);
+            String checksumQuery = dbConfigurationProperties.getProperty(DB_TABLE_CHECKSUM_QUERY);
+            if (checksumQuery == null) {
+                return loadSnapshot(connection, dbConfigurationProperties, previousSnapshot, keys, now);
+            }
+            String checksum = queryChecksum(connection, checksumQuery);
+            if (previousSnapshot != null && checksum.equals(previousSnapshot.checksum)
+                    && (keys == null || previousSnapshot.keys.containsAll(keys))) {
+                return previousSnapshot.renew(now);
+            }
+            return loadSnapshot(connection, dbConfigurationProperties, previousSnapshot, keys, now).withChecksum(checksum);
         } catch (Exception e) {
+            broken = true;
             throw new AnnotationProcessingException("Unable to get database properties from '" + configuration + "'", e);
         } finally {
-            try {
-                closeResources(connection, statement, resultSet);
-            } catch (SQLException e) {
-                LOGGER.warn("Unable to close database resources", e);
+            if (connection != null) {
+                releaseConnection(configuration, connection, broken);
             }
         }
     }
 
-    private Properties extractProperties(final ResultSet resultSet, final Properties dbConfigurationProperties) throws SQLException {
-        Properties dbProperties = new Properties();
+    private Snapshot loadSnapshot(final Connection connection, final Properties dbConfigurationProperties, final Snapshot previousSnapshot,
+                                  final Set<String> keys, final long now) throws SQLException, AnnotationProcessingException {
+        if (keys != null) {
+            return loadProperties(connection, dbConfigurationProperties, new HashSet<>(keys), now);
+        }
+        String versionColumn = dbConfigurationProperties.getProperty(DB_TABLE_VERSION_COLUMN);
+        if (versionColumn == null || previousSnapshot == null || previousSnapshot.highWaterMark == null) {
+            return loadAllProperties(connection, dbConfigurationProperties, now);
+        }
+        Snapshot snapshot = loadChangedProperties(connection, dbConfigurationProperties, previousSnapshot, now);
+        if (!isRemovingDeletedKeys(dbConfigurationProperties)) {
+            return snapshot;
+        }
+        if (countProperties(connection, dbConfigurationProperties) == snapshot.properties.size()) {
+            return snapshot;
+        }
+        Set<String> tableKeys = loadKeys(connection, dbConfigurationProperties);
+        if (!snapshot.properties.keySet().containsAll(tableKeys)) {
+            // rows inserted without a new version
+            return loadAllProperties(connection, dbConfigurationProperties, now);
+        }
+        Map<String, String> dbProperties = new HashMap<>(snapshot.properties);
+        dbProperties.keySet().retainAll(tableKeys);
+        return new Snapshot(Collections.unmodifiableMap(dbProperties), snapshot.highWaterMark, null, now);
+    }
+
+    /*
+     * The checksum is the concatenation of the columns of the first row returned by the query.
+     */
+    private String queryChecksum(final Connection connection, final String checksumQuery) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(checksumQuery)) {
+            StringBuilder checksum = new StringBuilder();
+            if (resultSet.next()) {
+                for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
+                    checksum.append(resultSet.getString(i)).append('|');
+                }
+            }
+            return checksum.toString();
+        }
+    }
+
+    private Snapshot loadAllProperties(final Connection connection, final Properties dbConfigurationProperties, final long now) throws SQLException {
+        String versionColumn = dbConfigurationProperties.getProperty(DB_TABLE_VERSION_COLUMN);
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(getSqlQuery(dbConfigurationProperties))) {
+            Map<String, String> dbProperties = new HashMap<>();
+            Object highWaterMark = extractProperties(resultSet, dbConfigurationProperties, dbProperties, versionColumn, null);
+            return new Snapshot(Collections.unmodifiableMap(dbProperties), highWaterMark, null, now);
+        }
+    }
+
+    /*
+     * Keys are always fetched in chunks of the configured batch size (unused parameters are padded by repeating
+     * the last key) so that a single statement is prepared (and cached by the driver or the pool) per configuration,
+     * whatever the number of keys.
+     */
+    private Snapshot loadProperties(final Connection connection, final Properties dbConfigurationProperties,
+                                    final Set<String> keys, final long now) throws SQLException, AnnotationProcessingException {
+        Map<String, String> dbProperties = new HashMap<>();
+        String[] sortedKeys = keys.stream().sorted().toArray(String[]::new);
+        long maxBatchSize = getLongProperty(dbConfigurationProperties, DB_LOOKUP_BATCH_SIZE, DEFAULT_DB_LOOKUP_BATCH_SIZE);
+        int batchSize = (int) Math.max(1, Math.min(maxBatchSize, Integer.MAX_VALUE));
+        try (PreparedStatement statement = connection.prepareStatement(getKeysSqlQuery(dbConfigurationProperties, batchSize))) {
+            for (int start = 0; start < sortedKeys.length; start += batchSize) {
+                for (int i = 0; i < batchSize; i++) {
+                    statement.setString(i + 1, sortedKeys[Math.min(start + i, sortedKeys.length - 1)]);
+                }
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    extractProperties(resultSet, dbConfigurationProperties, dbProperties, null, null);
+                }
+            }
+        }
+        return new Snapshot(Collections.unmodifiableMap(dbProperties), null, Collections.unmodifiableSet(keys), now);
+    }
+
+    private Snapshot loadChangedProperties(final Connection connection, final Properties dbConfigurationProperties,
+                                           final Snapshot previousSnapshot, final long now) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(getChangedPropertiesSqlQuery(dbConfigurationProperties))) {
+            statement.setObject(1, previousSnapshot.highWaterMark);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                Map<String, String> dbProperties = new HashMap<>(previousSnapshot.properties);
+                String versionColumn = dbConfigurationProperties.getProperty(DB_TABLE_VERSION_COLUMN);
+                Object highWaterMark = extractProperties(resultSet, dbConfigurationProperties, dbProperties, versionColumn, previousSnapshot.highWaterMark);
+                return new Snapshot(Collections.unmodifiableMap(dbProperties), highWaterMark, null, now);
+            }
+        }
+    }
+
+    private long countProperties(final Connection connection, final Properties dbConfigurationProperties) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(getCountSqlQuery(dbConfigurationProperties))) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private Set<String> loadKeys(final Connection connection, final Properties dbConfigurationProperties) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(getKeySetSqlQuery(dbConfigurationProperties))) {
+            Set<String> keys = new HashSet<>();
+            while (resultSet.next()) {
+                keys.add(resultSet.getString(1));
+            }
+            return keys;
+        }
+    }
+
+    private boolean isRemovingDeletedKeys(final Properties dbConfigurationProperties) {
+        String deletedKeys = dbConfigurationProperties.getProperty(DB_TABLE_DELETED_KEYS, DELETED_KEYS_REMOVE).trim();
+        if (DELETED_KEYS_REMOVE.equalsIgnoreCase(deletedKeys)) {
+            return true;
+        }
+        if (DELETED_KEYS_KEEP.equalsIgnoreCase(deletedKeys)) {
+            return false;
+        }
+        throw new IllegalArgumentException(format("Invalid value '%s' of '%s', expected '%s' or '%s'",
+                deletedKeys, DB_TABLE_DELETED_KEYS, DELETED_KEYS_REMOVE, DELETED_KEYS_KEEP));
+    }
+
+    /*
+     * Rows with a null value are removed so that updating a value to null in incremental mode removes the key.
+     */
+    @SuppressWarnings("unchecked")
+    private Object extractProperties(final ResultSet resultSet, final Properties dbConfigurationProperties,
+                                     final Map<String, String> dbProperties, final String versionColumn, final Object highWaterMark) throws SQLException {
         String keyColumn = dbConfigurationProperties.getProperty(DB_TABLE_KEY_COLUMN);
         String valueColumn = dbConfigurationProperties.getProperty(DB_TABLE_VALUE_COLUMN);
+        Object maxVersion = highWaterMark;
         while (resultSet.next()) {
             String dbKey = resultSet.getString(keyColumn);
             String dbValue = resultSet.getString(valueColumn);
-            dbProperties.put(dbKey, dbValue);
+            if (dbKey != null) {
+                if (dbValue != null) {
+                    dbProperties.put(dbKey, dbValue);
+                } else {
+                    dbProperties.remove(dbKey);
+                }
+            }
+            if (versionColumn != null) {
+                Comparable<Object> version = (Comparable<Object>) resultSet.getObject(versionColumn);
+                if (version != null && (maxVersion == null || version.compareTo(maxVersion) > 0)) {
+                    maxVersion = version;
+                }
+            }
+        }
+        return maxVersion;
+    }
+
+    private Connection getConnection(final String configuration, final Properties dbConfigurationProperties) throws Exception {
+        DataSource dataSource = getDataSource(configuration, dbConfigurationProperties);
+        if (dataSource != null) {
+            return dataSource.getConnection();
+        }
+        return getConnectionPool(configuration, dbConfigurationProperties).borrow();
+    }
+
+    private void releaseConnection(final String configuration, final Connection connection, final boolean broken) {
+        ConnectionPool connectionPool = dataSources.containsKey(configuration) ? null : connectionPools.get(configuration);
+        if (connectionPool != null) {
+            connectionPool.release(connection, broken);
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            LOGGER.warn("Unable to close database connection", e);
+        }
+    }
+
+    private DataSource getDataSource(final String configuration, final Properties dbConfigurationProperties) throws NamingException {
+        DataSource dataSource = dataSources.get(configuration);
+        if (dataSource == null) {
+            String name = dbConfigurationProperties.getProperty(DB_DATA_SOURCE);
+            if (name != null) {
+                dataSource = (DataSource) new InitialContext().lookup(name.trim());
+                dataSources.put(configuration, dataSource);
+            }
         }
-        return dbProperties;
+        return dataSource;
     }
 
-    private Connection getConnection(final Properties dbConfigurationProperties) throws SQLException {
-        String url = dbConfigurationProperties.getProperty(DB_URL);
-        String user = dbConfigurationProperties.getProperty(DB_USER);
-        String password = dbConfigurationProperties.getProperty(DB_PASSWORD);
-        return DriverManager.getConnection(url, user, password);
+    private ConnectionPool getConnectionPool(final String configuration, final Properties dbConfigurationProperties) throws Exception {
+        ConnectionPool connectionPool = connectionPools.get(configuration);
+        if (connectionPool == null) {
+            String driver = dbConfigurationProperties.getProperty(DB_DRIVER);
+            if (driver != null) {
+                Class.forName(driver);
+            }
+            String url = dbConfigurationProperties.getProperty(DB_URL);
+            String user = dbConfigurationProperties.getProperty(DB_USER);
+            String password = dbConfigurationProperties.getProperty(DB_PASSWORD);
+            int maxSize = (int) getLongProperty(configuration, DB_POOL_MAX_SIZE, DEFAULT_DB_POOL_MAX_SIZE);
+            long idleTimeout = getLongProperty(configuration, DB_POOL_IDLE_TIMEOUT, DEFAULT_DB_POOL_IDLE_TIMEOUT);
+            ConnectionPool newConnectionPool = new ConnectionPool(url, user, password, maxSize, idleTimeout);
+            connectionPool = connectionPools.putIfAbsent(configuration, newConnectionPool);
+            if (connectionPool == null) {
+                connectionPool = newConnectionPool;
+            }
+        }
+        return connectionPool;
     }
 
     private String getSqlQuery(final Properties dbConfigurationProperties) {
@@ -148,32 +547,84 @@ public class DBPropertyAnnotationProcessor extends AbstractAnnotationProcessor<D
         String table = dbConfigurationProperties.getProperty(DB_TABLE);
         String keyColumn = dbConfigurationProperties.getProperty(DB_TABLE_KEY_COLUMN);
         String valueColumn = dbConfigurationProperties.getProperty(DB_TABLE_VALUE_COLUMN);
+        String versionColumn = dbConfigurationProperties.getProperty(DB_TABLE_VERSION_COLUMN);
+        if (versionColumn != null) {
+            return format("SELECT %s, %s, %s FROM %s.%s", keyColumn, valueColumn, versionColumn, schema, table);
+        }
         return format("SELECT %s, %s FROM %s.%s", keyColumn, valueColumn, schema, table);
     }
 
-    private void closeResources(final Connection connection, final Statement statement, final ResultSet resultSet) throws SQLException {
-        if (resultSet != null) {
-            resultSet.close();
-        }
-        if (statement != null) {
-            statement.close();
-        }
-        if (connection != null) {
-            connection.close();
-        }
+    /*
+     * Rows with a version equal to the high-water mark are fetched again (and merged idempotently)
+     * so that rows committed later with the same version (e.g. the same timestamp) are not missed.
+     */
+    private String getChangedPropertiesSqlQuery(final Properties dbConfigurationProperties) {
+        String versionColumn = dbConfigurationProperties.getProperty(DB_TABLE_VERSION_COLUMN);
+        return format("%s WHERE %s >= ?", getSqlQuery(dbConfigurationProperties), versionColumn);
+    }
+
+    private String getKeysSqlQuery(final Properties dbConfigurationProperties, final int batchSize) {
+        String schema = dbConfigurationProperties.getProperty(DB_SCHEMA);
+        String table = dbConfigurationProperties.getProperty(DB_TABLE);
+        String keyColumn = dbConfigurationProperties.getProperty(DB_TABLE_KEY_COLUMN);
+        String valueColumn = dbConfigurationProperties.getProperty(DB_TABLE_VALUE_COLUMN);
+        String parameters = String.join(", ", Collections.nCopies(batchSize, "?"));
+        return format("SELECT %s, %s FROM %s.%s WHERE %s IN (%s)", keyColumn, valueColumn, schema, table, keyColumn, parameters);
+    }
+
+    private String getCountSqlQuery(final Properties dbConfigurationProperties) {
+        String schema = dbConfigurationProperties.getProperty(DB_SCHEMA);
+        String table = dbConfigurationProperties.getProperty(DB_TABLE);
+        String keyColumn = dbConfigurationProperties.getProperty(DB_TABLE_KEY_COLUMN);
+        String valueColumn = dbConfigurationProperties.getProperty(DB_TABLE_VALUE_COLUMN);
+        return format("SELECT COUNT(*) FROM %s.%s WHERE %s IS NOT NULL AND %s IS NOT NULL", schema, table, keyColumn, valueColumn);
+    }
+
+    private String getKeySetSqlQuery(final Properties dbConfigurationProperties) {
+        String schema = dbConfigurationProperties.getProperty(DB_SCHEMA);
+        String table = dbConfigurationProperties.getProperty(DB_TABLE);
+        String keyColumn = dbConfigurationProperties.getProperty(DB_TABLE_KEY_COLUMN);
+        String valueColumn = dbConfigurationProperties.getProperty(DB_TABLE_VALUE_COLUMN);
+        return format("SELECT %s FROM %s.%s WHERE %s IS NOT NULL AND %s IS NOT NULL", keyColumn, schema, table, keyColumn, valueColumn);
     }
 
-    private void loadDatabaseConfigurationProperties(final String configuration) throws AnnotationProcessingException {
-        Properties dbConfigurationProperties = new Properties();
+    private Properties loadDatabaseConfigurationProperties(final String configuration) throws AnnotationProcessingException {
         try {
-            InputStream inputStream = getResourceAsStream(configuration);
-            if (inputStream != null) {
-                dbConfigurationProperties.load(inputStream);
-                dbConfigurationMap.put(configuration, dbConfigurationProperties);
-            }
+            PropertiesSource propertiesSource = PropertiesSourceStore.SHARED.get(configuration, this);
+            return propertiesSource != null ? propertiesSource.getIndex().toProperties() : null;
         } catch (IOException e) {
             throw new AnnotationProcessingException(format("Unable to get properties from '%s'", configuration), e);
         }
     }
 
+    private static final class Snapshot {
+
+        private final Map<String, String> properties;
+        private final Object highWaterMark;
+        private final Set<String> keys;
+        private final String checksum;
+        private final long loadTime;
+
+        private Snapshot(final Map<String, String> properties, final Object highWaterMark, final Set<String> keys, final long loadTime) {
+            this(properties, highWaterMark, keys, null, loadTime);
+        }
+
+        private Snapshot(final Map<String, String> properties, final Object highWaterMark, final Set<String> keys,
+                         final String checksum, final long loadTime) {
+            this.properties = properties;
+            this.highWaterMark = highWaterMark;
+            this.keys = keys;
+            this.checksum = checksum;
+            this.loadTime = loadTime;
+        }
+
+        private Snapshot withChecksum(final String checksum) {
+            return new Snapshot(properties, highWaterMark, keys, checksum, loadTime);
+        }
+
+        private Snapshot renew(final long loadTime) {
+            return new Snapshot(properties, highWaterMark, keys, checksum, loadTime);
+        }
+    }
+
 }
@@ -29,9 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
 import java.util.Locale;
-import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.ResourceBundle;
 
@@ -47,9 +45,9 @@ public class I18NPropertyAnnotationProcessor extends AbstractAnnotationProcessor
     private static final Logger LOGGER = LoggerFactory.getLogger(I18NPropertyAnnotationProcessor.class);
 
     /**
-     * A map holding bundle file name and resource bundle object serving as a cache.
+     * A cache of resource bundles by bundle name.
      */
-    private final Map<String, ResourceBundle> resourceBundlesMap = new HashMap<>();
+    private final SourceCache<ResourceBundle> resourceBundles = new SourceCache<>();
 
     @Override
     public Object processAnnotation(final I18NProperty property, final Field field) throws AnnotationProcessingException {
@@ -69,14 +67,12 @@ public class I18NPropertyAnnotationProcessor extends AbstractAnnotationProcessor
 
         Locale locale = getLocale(language, country, variant);
 
-        //check if the resource bundle is not already loaded
-        if (!resourceBundlesMap.containsKey(bundle)) {
-            loadResourceBundle(bundle, locale);
-        }
+        //load the resource bundle if not already loaded
+        ResourceBundle resourceBundle = resourceBundles.get(bundle, name -> loadResourceBundle(name, locale));
 
         String value = null;
         try {
-            value = resourceBundlesMap.get(bundle).getString(key);
+            value = resourceBundle.getString(key);
             if (value.isEmpty()) {
                 LOGGER.warn("Key '{}' is empty in resource bundle '{}'", key, bundle);
                 return null;
@@ -109,10 +105,9 @@ public class I18NPropertyAnnotationProcessor extends AbstractAnnotationProcessor
         return locale;
     }
 
-    private void loadResourceBundle(final String bundle, final Locale locale) throws AnnotationProcessingException {
+    private ResourceBundle loadResourceBundle(final String bundle, final Locale locale) throws AnnotationProcessingException {
         try {
-            ResourceBundle resourceBundle = ResourceBundle.getBundle(bundle, locale);
-            resourceBundlesMap.put(bundle, resourceBundle);
+            return ResourceBundle.getBundle(bundle, locale);
         } catch (MissingResourceException e) {
             throw new AnnotationProcessingException(format("Resource bundle '%s' not found", bundle), e);
         }
@@ -45,21 +45,14 @@ public class JNDIPropertyAnnotationProcessor extends AbstractAnnotationProcessor
     private static final Logger LOGGER = LoggerFactory.getLogger(JNDIPropertyAnnotationProcessor.class);
 
     /**
-     * The JNDI context.
+     * The JNDI context, created once on first use. A context is not thread-safe, so lookups
+     * are synchronized on it.
      */
-    private Context context;
+    private volatile Context context;
 
     @Override
     public Object processAnnotation(final JNDIProperty jndiPropertyAnnotation, final Field field) throws AnnotationProcessingException {
 
-        if (context == null) {
-            try {
-                context = new InitialContext(); // not in constructor cause throw NamingException
-            } catch (NamingException e) {
-                throw new AnnotationProcessingException("Unable to initialize JNDI context", e);
-            }
-        }
-
         String name = jndiPropertyAnnotation.value().trim();
         String defaultValue = jndiPropertyAnnotation.defaultValue().trim();
         boolean failFast = jndiPropertyAnnotation.failFast();
@@ -87,13 +80,34 @@ public class JNDIPropertyAnnotationProcessor extends AbstractAnnotationProcessor
     }
 
     private Object getObjectFromJndiContext(String name) throws AnnotationProcessingException {
+        Context jndiContext = getContext();
         Object value;
         try {
-            value = context.lookup(name);
+            synchronized (jndiContext) {
+                value = jndiContext.lookup(name);
+            }
             return value;
         } catch (NamingException e) {
             throw new AnnotationProcessingException(format("Unable to lookup object '%s' from JNDI context", name), e);
         }
     }
 
+    private Context getContext() throws AnnotationProcessingException {
+        Context jndiContext = context;
+        if (jndiContext == null) {
+            synchronized (this) {
+                jndiContext = context;
+                if (jndiContext == null) {
+                    try {
+                        jndiContext = new InitialContext(); // not in constructor cause throw NamingException
+                    } catch (NamingException e) {
+                        throw new AnnotationProcessingException("Unable to initialize JNDI context", e);
+                    }
+                    context = jndiContext;
+                }
+            }
+        }
+        return jndiContext;
+    }
+
 }
@@ -0,0 +1,152 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Properties read lazily from their source.
+ *
+ * The source is indexed when a property is first looked up (see {@link PropertiesSource#getIndex()}) and values are
+ * decoded only for looked up keys. Callers declare the keys they expect to look up: once all of them have
+ * been resolved, the source is released (unless used by other processors) and only resolved values are retained.
+ * Keys expected after the source has been released are resolved from the source read again, as long as its
+ * content has not changed, and merged with the values resolved before.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class LazyProperties {
+
+    /*
+     * Marker of resolved keys which have no value (compared by identity).
+     */
+    private static final String MISSING = new String();
+
+    private final Map<String, String> resolvedValues = new ConcurrentHashMap<>();
+    private final PropertiesSource.Fingerprint fingerprint;
+
+    /*
+     * The following fields are guarded by this object.
+     */
+    private final Set<String> expectedKeys = new HashSet<>();
+    private PropertiesSource source;
+    private PropertiesIndex index;
+
+    LazyProperties(final PropertiesSource source) {
+        this.source = source;
+        this.fingerprint = source.getFingerprint();
+    }
+
+    /**
+     * Declare keys that will be looked up. The source is retained until all expected keys have been resolved.
+     *
+     * @param keys the expected keys
+     * @return false if the source has been released and some of the keys are not resolved,
+     * in which case properties should be loaded again
+     */
+    synchronized boolean expect(final Collection<String> keys) {
+        for (String key : keys) {
+            if (!resolvedValues.containsKey(key)) {
+                if (source == null) {
+                    return false;
+                }
+                expectedKeys.add(key);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Declare keys that will be looked up, attaching the given source again if it has been released and some
+     * of the keys are not resolved.
+     *
+     * @param keys   the expected keys
+     * @param source the source these properties have been read from, read again
+     * @return false if the source has been released and its content has changed since, in which case
+     * properties should be loaded again
+     */
+    synchronized boolean expect(final Collection<String> keys, final PropertiesSource source) {
+        if (this.source == null && !resolvedValues.keySet().containsAll(keys)) {
+            if (!fingerprint.hasSameContent(source.getFingerprint())) {
+                return false;
+            }
+            this.source = source;
+        }
+        return expect(keys);
+    }
+
+    /**
+     * Get the value of a property. The key must have been declared as expected beforehand.
+     *
+     * @param key the property key
+     * @return the property value or {@code null} if there is no such property
+     * @throws IOException if the value is malformed or cannot be read
+     */
+    String getProperty(final String key) throws IOException {
+        String value = resolvedValues.get(key);
+        if (value == null) {
+            value = resolve(key);
+        }
+        return value == MISSING ? null : value;
+    }
+
+    /**
+     * Check if the source has been released.
+     *
+     * @return true if the source has been released
+     */
+    synchronized boolean isReleased() {
+        return source == null;
+    }
+
+    private synchronized String resolve(final String key) throws IOException {
+        String value = resolvedValues.get(key);
+        if (value != null) {
+            return value;
+        }
+        if (source == null) {
+            throw new IllegalStateException("Key '" + key + "' has not been declared as expected before being looked up");
+        }
+        if (index == null) {
+            index = source.getIndex();
+        }
+        value = index.getProperty(key);
+        if (value == null) {
+            value = MISSING;
+        }
+        resolvedValues.put(key, value);
+        expectedKeys.remove(key);
+        if (expectedKeys.isEmpty()) {
+            source = null;
+            index = null;
+        }
+        return value;
+    }
+
+}
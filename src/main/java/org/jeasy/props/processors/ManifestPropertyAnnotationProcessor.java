@@ -31,8 +31,6 @@ import org.slf4j.LoggerFactory;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.jar.JarInputStream;
 import java.util.jar.Manifest;
 
@@ -50,9 +48,9 @@ public class ManifestPropertyAnnotationProcessor extends AbstractAnnotationProce
     private static final String PATH_SEPARATOR = System.getProperty("path.separator");
 
     /**
-     * A map of jar / manifest entries pairs.
+     * A cache of manifests by jar name.
      */
-    private final Map<String, Manifest> manifestEntries = new HashMap<>();
+    private final SourceCache<Manifest> manifests = new SourceCache<>();
 
     @Override
     public Object processAnnotation(final ManifestProperty manifestPropertyAnnotation, final Field field) throws AnnotationProcessingException {
@@ -67,14 +65,12 @@ public class ManifestPropertyAnnotationProcessor extends AbstractAnnotationProce
         rejectIfEmpty(jar, missingAttributeValue("jar", annotationName, field));
         rejectIfEmpty(header, missingAttributeValue("header", annotationName, field));
 
-        if (manifestEntries.get(jar) == null) {
-            loadManifestFromJar(jar);
-        }
+        Manifest manifest = manifests.get(jar, this::loadManifestFromJar);
 
         //the jar was not found in the classpath
-        rejectIfNotFound(jar);
+        rejectIfNotFound(jar, manifest);
 
-        String value = manifestEntries.get(jar).getMainAttributes().getValue(header);
+        String value = manifest.getMainAttributes().getValue(header);
         if (value == null) {
             String message = String.format("Header '%s' not found in manifest of jar '%s'", header, jar);
             LOGGER.warn(message);
@@ -96,23 +92,23 @@ public class ManifestPropertyAnnotationProcessor extends AbstractAnnotationProce
 
     }
 
-    private void rejectIfNotFound(String jar) throws AnnotationProcessingException {
-        if (manifestEntries.get(jar) == null) {
+    private void rejectIfNotFound(String jar, Manifest manifest) throws AnnotationProcessingException {
+        if (manifest == null) {
             throw new AnnotationProcessingException(format("Unable to find jar '%s' in classpath '%s'", jar, CLASSPATH));
         }
     }
 
-    private void loadManifestFromJar(final String jar) throws AnnotationProcessingException {
+    private Manifest loadManifestFromJar(final String jar) throws AnnotationProcessingException {
         JarInputStream jarStream = null;
         try {
             final String[] classPathElements = CLASSPATH.split(PATH_SEPARATOR);
             for (final String element : classPathElements) {
                 if (element.endsWith(jar)) {
                     jarStream = new JarInputStream(new FileInputStream(element));
-                    manifestEntries.put(jar, jarStream.getManifest());
-                    break;
+                    return jarStream.getManifest();
                 }
             }
+            return null;
         } catch (IOException e) {
             throw new AnnotationProcessingException(format("Unable to load manifest file from jar '%s'", jar), e);
         } finally {
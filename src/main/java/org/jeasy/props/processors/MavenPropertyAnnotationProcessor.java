@@ -29,11 +29,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Properties;
 
 import static java.lang.String.format;
 
@@ -47,9 +43,9 @@ public class MavenPropertyAnnotationProcessor extends AbstractAnnotationProcesso
     private static final Logger LOGGER = LoggerFactory.getLogger(MavenPropertyAnnotationProcessor.class);
 
     /**
-     * A map holding pom.properties file with corresponding Properties object serving as a cache.
+     * A cache of pom.properties files.
      */
-    private final Map<String, Properties> mavenMap = new HashMap<>();
+    private final SourceCache<PropertiesSource> mavenProperties = new SourceCache<>();
 
     @Override
     public Object processAnnotation(final MavenProperty mavenAnnotation, final Field field) throws AnnotationProcessingException {
@@ -69,11 +65,7 @@ public class MavenPropertyAnnotationProcessor extends AbstractAnnotationProcesso
 
         //check if the maven properties for the given coordinates are not already loaded
         String pomFile = "META-INF/maven/" + groupId + "/" + artifactId + "/" + source;
-        if (!mavenMap.containsKey(pomFile)) {
-            loadMavenProperties(pomFile);
-        }
-
-        String value = mavenMap.get(pomFile).getProperty(key);
+        String value = getProperty(mavenProperties.get(pomFile, this::loadMavenProperties), key, pomFile);
         if (value == null) {
             String message = String.format("Maven property '%s' on field '%s' of type '%s' in class '%s' not found in pom file '%s'",
                     key, field.getName(), field.getType().getName(), field.getDeclaringClass().getName(), pomFile);
@@ -95,13 +87,11 @@ public class MavenPropertyAnnotationProcessor extends AbstractAnnotationProcesso
 
     }
 
-    private void loadMavenProperties(final String pomFile) throws AnnotationProcessingException {
-        java.util.Properties properties = new java.util.Properties();
+    private PropertiesSource loadMavenProperties(final String pomFile) throws AnnotationProcessingException {
         try {
-            InputStream inputStream = getResourceAsStream(pomFile);
-            if (inputStream != null) {
-                properties.load(inputStream);
-                mavenMap.put(pomFile, properties);
+            PropertiesSource propertiesSource = PropertiesSourceStore.SHARED.get(pomFile, this);
+            if (propertiesSource != null) {
+                return propertiesSource;
             } else {
                 throw new AnnotationProcessingException(format("Unable to load pom file from '%s'", pomFile));
             }
@@ -110,4 +100,12 @@ public class MavenPropertyAnnotationProcessor extends AbstractAnnotationProcesso
         }
     }
 
+    private String getProperty(final PropertiesSource propertiesSource, final String key, final String pomFile) throws AnnotationProcessingException {
+        try {
+            return propertiesSource.getIndex().getProperty(key);
+        } catch (IOException e) {
+            throw new AnnotationProcessingException(format("Unable to read property '%s' from pom file '%s'", key, pomFile), e);
+        }
+    }
+
 }
@@ -27,24 +27,25 @@ import org.jeasy.props.annotations.Properties;
 import org.jeasy.props.api.AnnotationProcessingException;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
 
 import static java.lang.String.format;
 
 /**
  * An annotation processor that loads all properties from a properties file.
  *
+ * Properties files are shared with other processors and cached. Files of the file system ({@code file:} prefix)
+ * are reloaded when their content changes (see {@link PropertiesSourceStore}).
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class PropertiesAnnotationProcessor extends AbstractAnnotationProcessor<Properties> {
 
     /**
-     * A map holding source file name and Properties object serving as a cache.
+     * A cache of properties files.
      */
-    private final Map<String, java.util.Properties> propertiesMap = new HashMap<>();
+    private final PropertiesSourceCache<java.util.Properties> propertiesSourceCache =
+            new PropertiesSourceCache<>(this, source -> source.getIndex().toProperties(), false);
 
     @Override
     public Object processAnnotation(final Properties propertiesAnnotation, final Field field) throws AnnotationProcessingException {
@@ -56,22 +57,14 @@ public class PropertiesAnnotationProcessor extends AbstractAnnotationProcessor<P
         boolean failFast = propertiesAnnotation.failFast();
         rejectIfEmpty(source, missingAttributeValue("source", Properties.class.getName(), field));
 
-        if (propertiesMap.containsKey(source)) {
-            return propertiesMap.get(source);
-        }
-        
         try {
-            java.util.Properties properties = loadPropertiesFrom(source);
-            propertiesMap.put(source, properties);
-            return propertiesMap.get(source);
+            return loadPropertiesFrom(source);
         } catch (Exception e) {
             if (failFast) {
                 throw e;
             }
             if (!defaultSource.isEmpty()) {
-                java.util.Properties properties = loadPropertiesFrom(defaultSource);
-                propertiesMap.put(defaultSource, properties);
-                return propertiesMap.get(defaultSource);
+                return loadPropertiesFrom(defaultSource);
             } else {
                 throw e;
             }
@@ -79,11 +72,9 @@ public class PropertiesAnnotationProcessor extends AbstractAnnotationProcessor<P
     }
 
     private java.util.Properties loadPropertiesFrom(final String source) throws AnnotationProcessingException {
-        java.util.Properties properties = new java.util.Properties();
         try {
-            InputStream inputStream = getResourceAsStream(source);
-            if (inputStream != null) {
-                properties.load(inputStream);
+            java.util.Properties properties = propertiesSourceCache.get(source);
+            if (properties != null) {
                 return properties;
             } else {
                 throw new AnnotationProcessingException(format("Unable to load properties from source '%s'", source));
@@ -0,0 +1,440 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+
+/**
+ * A read-only view of properties encoded in the format of {@link Properties#load(java.io.InputStream)}
+ * (ISO 8859-1 encoding, comments, line continuations and escape sequences).
+ *
+ * The content is scanned once to build an open-addressing index of key and value offsets. No string
+ * is created for keys, unless they contain escape sequences, and values are decoded from the content
+ * only when they are looked up for the first time. The content buffer is retained for that purpose,
+ * so it must not be modified afterwards.
+ *
+ * Lookups are thread-safe.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class PropertiesIndex {
+
+    private static final int KEY_START = 0;
+    private static final int KEY_END = 1;
+    private static final int VALUE_START = 2;
+    private static final int VALUE_END = 3;
+    private static final int STRIDE = 4;
+
+    private final ByteBuffer content;
+
+    /*
+     * Offsets of entries (key start, key end, value start, value end), in order of appearance.
+     */
+    private int[] offsets = new int[16 * STRIDE];
+    private int[] hashes = new int[16];
+    private int size;
+
+    /*
+     * Decoded keys of entries whose key contains escape sequences or line continuations, null otherwise.
+     */
+    private String[] escapedKeys;
+
+    /*
+     * Open-addressing table of entry indexes (plus one, zero meaning an empty slot), using linear probing.
+     */
+    private int[] table;
+    private int count;
+
+    /*
+     * Values decoded so far. Racing threads may decode the same value, which is harmless.
+     */
+    private String[] values;
+
+    /**
+     * Create an index of the given content.
+     *
+     * @param content the properties content, from its position to its limit
+     * @throws IOException if the content is malformed
+     */
+    PropertiesIndex(final ByteBuffer content) throws IOException {
+        this.content = content.slice();
+        scan();
+        index();
+        this.values = new String[size];
+    }
+
+    /**
+     * Get the value of a property.
+     *
+     * @param key the property key
+     * @return the property value or {@code null} if there is no such property
+     * @throws IOException if the value is malformed or cannot be read
+     */
+    String getProperty(final String key) throws IOException {
+        int entry = find(key);
+        return entry < 0 ? null : getProperty(entry);
+    }
+
+    /**
+     * Get the number of distinct properties.
+     *
+     * @return the number of properties
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * Copy all properties in a new {@link Properties} object.
+     *
+     * @return a new properties object
+     * @throws IOException if a property is malformed or cannot be read
+     */
+    Properties toProperties() throws IOException {
+        Properties properties = new Properties();
+        for (int slot : table) {
+            if (slot != 0) {
+                int entry = slot - 1;
+                properties.setProperty(keyOf(entry), getProperty(entry));
+            }
+        }
+        return properties;
+    }
+
+    private String getProperty(final int entry) throws IOException {
+        String value = values[entry];
+        if (value == null) {
+            value = decode(offsets[entry * STRIDE + VALUE_START], offsets[entry * STRIDE + VALUE_END]);
+            values[entry] = value;
+        }
+        return value;
+    }
+
+    /*
+     * Scanning
+     */
+
+    private void scan() throws IOException {
+        int limit = content.limit();
+        int position = 0;
+        while (position < limit) {
+            position = skipLeadingContinuations(skipWhitespaces(position, limit), limit);
+            if (position == limit) {
+                break;
+            }
+            byte b = content.get(position);
+            if (isLineTerminator(b)) {
+                position++;
+                continue;
+            }
+            if (b == '#' || b == '!') {
+                position = skipLine(position, limit);
+                continue;
+            }
+            int keyStart = position;
+            boolean escapedKey = false;
+            int hash = 0;
+            while (position < limit) {
+                b = content.get(position);
+                if (b == '\\') {
+                    escapedKey = true;
+                    position = skipEscape(position, limit);
+                    continue;
+                }
+                if (b == '=' || b == ':' || isWhitespace(b) || isLineTerminator(b)) {
+                    break;
+                }
+                hash = 31 * hash + (b & 0xff);
+                position++;
+            }
+            int keyEnd = position;
+            position = skipSeparatorWhitespaces(position, limit);
+            if (position < limit && (content.get(position) == '=' || content.get(position) == ':')) {
+                position = skipWhitespaces(position + 1, limit);
+            }
+            int valueStart = position;
+            while (position < limit) {
+                b = content.get(position);
+                if (b == '\\') {
+                    position = skipEscape(position, limit);
+                    continue;
+                }
+                if (isLineTerminator(b)) {
+                    break;
+                }
+                position++;
+            }
+            add(keyStart, keyEnd, valueStart, position, escapedKey, hash);
+        }
+    }
+
+    private void add(final int keyStart, final int keyEnd, final int valueStart, final int valueEnd,
+                     final boolean escapedKey, final int hash) throws IOException {
+        if (size == hashes.length) {
+            hashes = Arrays.copyOf(hashes, size * 2);
+            offsets = Arrays.copyOf(offsets, size * 2 * STRIDE);
+            if (escapedKeys != null) {
+                escapedKeys = Arrays.copyOf(escapedKeys, size * 2);
+            }
+        }
+        int base = size * STRIDE;
+        offsets[base + KEY_START] = keyStart;
+        offsets[base + KEY_END] = keyEnd;
+        offsets[base + VALUE_START] = valueStart;
+        offsets[base + VALUE_END] = valueEnd;
+        if (escapedKey) {
+            if (escapedKeys == null) {
+                escapedKeys = new String[hashes.length];
+            }
+            String key = decode(keyStart, keyEnd);
+            escapedKeys[size] = key;
+            hashes[size] = key.hashCode();
+        } else {
+            hashes[size] = hash;
+        }
+        size++;
+    }
+
+    /*
+     * Skips a backslash and the character it escapes. A backslash followed by a line terminator
+     * is a line continuation: the terminator and leading whitespaces of the next line are skipped.
+     */
+    private int skipEscape(final int position, final int limit) {
+        int next = position + 1;
+        if (next == limit) {
+            return limit;
+        }
+        byte b = content.get(next);
+        if (b == '\r') {
+            next++;
+            if (next < limit && content.get(next) == '\n') {
+                next++;
+            }
+            return skipWhitespaces(next, limit);
+        }
+        if (b == '\n') {
+            return skipWhitespaces(next + 1, limit);
+        }
+        return next + 1;
+    }
+
+    /*
+     * Skips line continuations at the beginning of a line: like in Properties.load, the line is still
+     * blank after them, so it may be an empty line or a comment.
+     */
+    private int skipLeadingContinuations(int position, final int limit) {
+        while (position + 1 < limit && content.get(position) == '\\' && isLineTerminator(content.get(position + 1))) {
+            position = skipEscape(position, limit);
+        }
+        return position;
+    }
+
+    private int skipWhitespaces(int position, final int limit) {
+        while (position < limit && isWhitespace(content.get(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private int skipSeparatorWhitespaces(int position, final int limit) {
+        while (position < limit) {
+            byte b = content.get(position);
+            if (isWhitespace(b)) {
+                position++;
+            } else if (b == '\\' && position + 1 < limit && isLineTerminator(content.get(position + 1))) {
+                position = skipEscape(position, limit);
+            } else {
+                break;
+            }
+        }
+        return position;
+    }
+
+    private int skipLine(int position, final int limit) {
+        while (position < limit && !isLineTerminator(content.get(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' ' || b == '\t' || b == '\f';
+    }
+
+    private static boolean isLineTerminator(final byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    /*
+     * Indexing
+     */
+
+    private void index() {
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        table = new int[capacity];
+        int mask = capacity - 1;
+        for (int entry = 0; entry < size; entry++) {
+            int slot = spread(hashes[entry]) & mask;
+            while (true) {
+                int other = table[slot] - 1;
+                if (other < 0) {
+                    table[slot] = entry + 1;
+                    count++;
+                    break;
+                }
+                if (hashes[other] == hashes[entry] && keyOf(other).equals(keyOf(entry))) {
+                    table[slot] = entry + 1; // the last occurrence of a key wins
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+    }
+
+    private int find(final String key) {
+        int hash = key.hashCode();
+        int mask = table.length - 1;
+        int slot = spread(hash) & mask;
+        while (true) {
+            int entry = table[slot] - 1;
+            if (entry < 0) {
+                return -1;
+            }
+            if (hashes[entry] == hash && keyEquals(entry, key)) {
+                return entry;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private boolean keyEquals(final int entry, final String key) {
+        if (escapedKeys != null && escapedKeys[entry] != null) {
+            return escapedKeys[entry].equals(key);
+        }
+        int start = offsets[entry * STRIDE + KEY_START];
+        int end = offsets[entry * STRIDE + KEY_END];
+        if (end - start != key.length()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if ((content.get(i) & 0xff) != key.charAt(i - start)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String keyOf(final int entry) {
+        if (escapedKeys != null && escapedKeys[entry] != null) {
+            return escapedKeys[entry];
+        }
+        int start = offsets[entry * STRIDE + KEY_START];
+        return string(start, offsets[entry * STRIDE + KEY_END]);
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /*
+     * Decoding
+     */
+
+    private String decode(final int start, final int end) throws IOException {
+        int position = start;
+        while (position < end && content.get(position) != '\\') {
+            position++;
+        }
+        if (position == end) {
+            return string(start, end);
+        }
+        StringBuilder builder = new StringBuilder(end - start);
+        builder.append(string(start, position));
+        while (position < end) {
+            byte b = content.get(position);
+            if (b != '\\') {
+                builder.append((char) (b & 0xff));
+                position++;
+                continue;
+            }
+            if (position + 1 == end) {
+                break;
+            }
+            byte escaped = content.get(position + 1);
+            if (isLineTerminator(escaped)) {
+                position = skipEscape(position, end);
+                continue;
+            }
+            position += 2;
+            switch (escaped) {
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'u':
+                    builder.append(decodeUnicode(position, end));
+                    position += 4;
+                    break;
+                default:
+                    builder.append((char) (escaped & 0xff));
+            }
+        }
+        return builder.toString();
+    }
+
+    private char decodeUnicode(final int position, final int end) throws IOException {
+        if (position + 4 > end) {
+            throw new IOException("Malformed \\uxxxx encoding.");
+        }
+        int value = 0;
+        for (int i = position; i < position + 4; i++) {
+            int digit = Character.digit(content.get(i), 16);
+            if (digit < 0) {
+                throw new IOException("Malformed \\uxxxx encoding.");
+            }
+            value = (value << 4) + digit;
+        }
+        return (char) value;
+    }
+
+    private String string(final int start, final int end) {
+        byte[] bytes = new byte[end - start];
+        content.duplicate().position(start).get(bytes);
+        return new String(bytes, ISO_8859_1);
+    }
+
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The raw content of a properties source, with its fingerprint and its index.
+ *
+ * The content is kept once, as read from the source, and is indexed on first lookup (see {@link PropertiesIndex}):
+ * keys and values are offsets in the content until they are requested.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class PropertiesSource {
+
+    private final Fingerprint fingerprint;
+    private final ByteBuffer content;
+    private final PropertiesSource sameContent;
+    private volatile PropertiesIndex index;
+
+    PropertiesSource(final Fingerprint fingerprint, final ByteBuffer content) {
+        this.fingerprint = fingerprint;
+        this.content = content;
+        this.sameContent = null;
+    }
+
+    /*
+     * A source with a new fingerprint but the same content as a previous one, sharing its content and index.
+     */
+    private PropertiesSource(final Fingerprint fingerprint, final PropertiesSource sameContent) {
+        this.fingerprint = fingerprint;
+        this.content = sameContent.content;
+        this.sameContent = sameContent;
+    }
+
+    /**
+     * Create a source with the given fingerprint and the content of this source.
+     *
+     * @param fingerprint the new fingerprint
+     * @return a source sharing the content and index of this source
+     */
+    PropertiesSource withFingerprint(final Fingerprint fingerprint) {
+        return new PropertiesSource(fingerprint, sameContent != null ? sameContent : this);
+    }
+
+    Fingerprint getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Get the index of this source, creating it if needed.
+     *
+     * @return the index of this source
+     * @throws IOException if the content is malformed
+     */
+    PropertiesIndex getIndex() throws IOException {
+        if (sameContent != null) {
+            return sameContent.getIndex();
+        }
+        PropertiesIndex propertiesIndex = index;
+        if (propertiesIndex == null) {
+            synchronized (this) {
+                propertiesIndex = index;
+                if (propertiesIndex == null) {
+                    propertiesIndex = new PropertiesIndex(content);
+                    index = propertiesIndex;
+                }
+            }
+        }
+        return propertiesIndex;
+    }
+
+    /**
+     * Fingerprint of a properties source: last modification time and size of files of the file system,
+     * and the SHA-256 digest of the content.
+     */
+    static final class Fingerprint {
+
+        private final File file;
+        private final long lastModified;
+        private final long size;
+        private final byte[] digest;
+
+        Fingerprint(final File file, final long lastModified, final long size, final byte[] digest) {
+            this.file = file;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.digest = digest;
+        }
+
+        /**
+         * Check if the source is unchanged since this fingerprint was taken. Sources which are not files
+         * of the file system never change.
+         *
+         * @return true if the source is unchanged
+         */
+        boolean isUpToDate() {
+            return file == null || (file.lastModified() == lastModified && file.length() == size);
+        }
+
+        /**
+         * Check if this fingerprint has the same content digest as another fingerprint. Unlike a checksum,
+         * a cryptographic digest makes it safe to consider contents with equal digests as equal.
+         *
+         * @param other the other fingerprint
+         * @return true if both fingerprints have the same content digest
+         */
+        boolean hasSameContent(final Fingerprint other) {
+            return Arrays.equals(digest, other.digest);
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A cache of properties files, in the form used by an annotation processor.
+ *
+ * Properties sources are loaded from the {@link PropertiesSourceStore} shared by all processors. Files of
+ * the file system ({@code file:} prefix) are reloaded when they change: properties are parsed again only if
+ * the content has actually changed. Otherwise, the cached properties instance is returned, so that callers
+ * can detect unchanged sources by identity.
+ *
+ * This cache is thread-safe: up-to-date sources are returned without locking, and a source is
+ * (re)loaded by a single thread at a time, other threads asking for the same source waiting for it.
+ *
+ * @param <P> the type of parsed properties
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class PropertiesSourceCache<P> {
+
+    /**
+     * Parser of properties sources.
+     *
+     * @param <P> the type of parsed properties
+     */
+    @FunctionalInterface
+    interface Parser<P> {
+
+        /**
+         * Parse a properties source. Parsed properties may keep a reference to the source,
+         * which is shared with other processors as long as it is referenced.
+         *
+         * @param source the properties source
+         * @return the parsed properties
+         * @throws IOException if the source is malformed
+         */
+        P parse(PropertiesSource source) throws IOException;
+    }
+
+    private final AbstractAnnotationProcessor<?> annotationProcessor;
+    private final Parser<P> parser;
+    private final boolean retainSources;
+    private final ConcurrentMap<String, Entry<P>> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+
+    /**
+     * Create a cache of properties files.
+     *
+     * @param annotationProcessor the processor used to load sources
+     * @param parser              the parser of sources
+     * @param retainSources       true to keep sources (and share them with other processors) as long as they are
+     *                            cached, false to let parsed properties decide how long sources are kept
+     */
+    PropertiesSourceCache(final AbstractAnnotationProcessor<?> annotationProcessor, final Parser<P> parser, final boolean retainSources) {
+        this.annotationProcessor = annotationProcessor;
+        this.parser = parser;
+        this.retainSources = retainSources;
+    }
+
+    /**
+     * Get properties of the given source, loading them if needed.
+     *
+     * @param source the properties source
+     * @return the properties or {@code null} if the source does not exist
+     * @throws IOException if the source cannot be read
+     */
+    P get(final String source) throws IOException {
+        Entry<P> entry = entries.get(source);
+        if (entry != null && entry.fingerprint.isUpToDate()) {
+            return entry.properties;
+        }
+        synchronized (locks.computeIfAbsent(source, s -> new Object())) {
+            entry = entries.get(source);
+            if (entry != null && entry.fingerprint.isUpToDate()) {
+                return entry.properties;
+            }
+            PropertiesSource propertiesSource = PropertiesSourceStore.SHARED.get(source, annotationProcessor);
+            if (propertiesSource == null) {
+                return null;
+            }
+            PropertiesSource.Fingerprint fingerprint = propertiesSource.getFingerprint();
+            P properties = entry != null && entry.fingerprint.hasSameContent(fingerprint) ? entry.properties : parser.parse(propertiesSource);
+            entries.put(source, new Entry<>(properties, fingerprint, retainSources ? propertiesSource : null));
+            return properties;
+        }
+    }
+
+    /**
+     * Remove properties of the given source from the cache, so that they are parsed again on next access.
+     *
+     * @param source the properties source
+     */
+    void invalidate(final String source) {
+        entries.remove(source);
+    }
+
+    private static final class Entry<P> {
+
+        private final P properties;
+        private final PropertiesSource.Fingerprint fingerprint;
+        private final PropertiesSource source;
+
+        private Entry(final P properties, final PropertiesSource.Fingerprint fingerprint, final PropertiesSource source) {
+            this.properties = properties;
+            this.fingerprint = fingerprint;
+            this.source = source;
+        }
+    }
+
+}
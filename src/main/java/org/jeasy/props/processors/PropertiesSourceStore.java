@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A store of properties sources shared by all annotation processors, so that a source is loaded and
+ * indexed once, whatever the number of processors reading it.
+ *
+ * Files of the file system ({@code file:} prefix) are read in a single call (they are not memory mapped, since
+ * the index would then read a live mapping, which the file system could truncate or rewrite in place) and
+ * fingerprinted with their last modification time and size, which are checked on each access. When they
+ * change, the file is read again and the SHA-256 digest of its content is compared to the previous one: a source
+ * whose content has not actually changed keeps its content and index. Other sources (classpath resources)
+ * are loaded once per context class loader.
+ *
+ * Sources are weakly referenced: they are kept as long as a processor uses them. Up-to-date sources are
+ * returned without locking, and a source is (re)loaded by a single thread at a time, other threads asking
+ * for the same source waiting for it.
+ *
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class PropertiesSourceStore {
+
+    private static final String FILE_RESOURCE_PREFIX = "file:";
+
+    /**
+     * The store shared by all processors.
+     */
+    static final PropertiesSourceStore SHARED = new PropertiesSourceStore();
+
+    private final ConcurrentMap<Key, SourceReference> sources = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key, Object> locks = new ConcurrentHashMap<>();
+    private final ReferenceQueue<PropertiesSource> collectedSources = new ReferenceQueue<>();
+
+    /**
+     * Get a properties source, loading it if needed.
+     *
+     * @param source              the properties source
+     * @param annotationProcessor the processor used to load the source
+     * @return the properties source or {@code null} if it does not exist
+     * @throws IOException if the source cannot be read
+     */
+    PropertiesSource get(final String source, final AbstractAnnotationProcessor<?> annotationProcessor) throws IOException {
+        expungeCollectedSources();
+        boolean isFile = source.startsWith(FILE_RESOURCE_PREFIX);
+        Key key = new Key(source, isFile ? null : Thread.currentThread().getContextClassLoader());
+        PropertiesSource propertiesSource = get(key);
+        if (propertiesSource != null && propertiesSource.getFingerprint().isUpToDate()) {
+            return propertiesSource;
+        }
+        synchronized (locks.computeIfAbsent(key, k -> new Object())) {
+            propertiesSource = get(key);
+            if (propertiesSource != null && propertiesSource.getFingerprint().isUpToDate()) {
+                return propertiesSource;
+            }
+            propertiesSource = isFile ? load(source, propertiesSource) : load(source, annotationProcessor);
+            if (propertiesSource != null) {
+                sources.put(key, new SourceReference(key, propertiesSource, collectedSources));
+            }
+            return propertiesSource;
+        }
+    }
+
+    private PropertiesSource get(final Key key) {
+        SourceReference reference = sources.get(key);
+        return reference != null ? reference.get() : null;
+    }
+
+    private PropertiesSource load(final String source, final AbstractAnnotationProcessor<?> annotationProcessor) throws IOException {
+        try (InputStream inputStream = annotationProcessor.getResourceAsStream(source)) {
+            if (inputStream == null) {
+                return null;
+            }
+            ByteBuffer content = ByteBuffer.wrap(inputStream.readAllBytes());
+            return new PropertiesSource(new PropertiesSource.Fingerprint(null, 0, 0, digest(content)), content);
+        }
+    }
+
+    private PropertiesSource load(final String source, final PropertiesSource previousSource) throws IOException {
+        File file = new File(source.substring(source.lastIndexOf(':') + 1));
+        long lastModified = file.lastModified();
+        long size = file.length();
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        PropertiesSource.Fingerprint fingerprint = new PropertiesSource.Fingerprint(file, lastModified, size, digest(content));
+        if (previousSource != null && previousSource.getFingerprint().hasSameContent(fingerprint)) {
+            return previousSource.withFingerprint(fingerprint);
+        }
+        return new PropertiesSource(fingerprint, content);
+    }
+
+    private byte[] digest(final ByteBuffer content) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            messageDigest.update(content.duplicate());
+            return messageDigest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported by this Java platform", e);
+        }
+    }
+
+    private void expungeCollectedSources() {
+        Reference<? extends PropertiesSource> reference;
+        while ((reference = collectedSources.poll()) != null) {
+            Key key = ((SourceReference) reference).key;
+            if (sources.remove(key, reference)) {
+                locks.remove(key);
+            }
+        }
+    }
+
+    private static final class Key {
+
+        private final String source;
+        private final ClassLoader classLoader;
+
+        private Key(final String source, final ClassLoader classLoader) {
+            this.source = source;
+            this.classLoader = classLoader;
+        }
+
+        @Override
+        public boolean equals(final Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return source.equals(key.source) && classLoader == key.classLoader;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(source, System.identityHashCode(classLoader));
+        }
+    }
+
+    private static final class SourceReference extends WeakReference<PropertiesSource> {
+
+        private final Key key;
+
+        private SourceReference(final Key key, final PropertiesSource source, final ReferenceQueue<PropertiesSource> queue) {
+            super(source, queue);
+            this.key = key;
+        }
+    }
+
+}
@@ -29,17 +29,25 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
-import java.util.Properties;
+import java.util.Set;
 
 import static java.lang.String.format;
 
 /**
  * An annotation processor that loads properties from properties files.
  *
+ * Properties files are shared with other processors and cached. Files of the file system ({@code file:} prefix)
+ * are reloaded when their content changes (see {@link PropertiesSourceStore}). Properties files are indexed
+ * rather than fully decoded: only values of requested keys are decoded (see {@link PropertiesIndex}).
+ *
+ * Properties declared with {@link Property#lazy()} are read from a file which is indexed on first lookup and
+ * released once lazy properties of the declaring class have been resolved (see {@link LazyProperties}).
+ *
  * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
  */
 public class PropertyAnnotationProcessor extends AbstractAnnotationProcessor<Property> {
@@ -47,9 +55,25 @@ public class PropertyAnnotationProcessor extends AbstractAnnotationProcessor<Pro
     private static final Logger LOGGER = LoggerFactory.getLogger(PropertyAnnotationProcessor.class);
 
     /**
-     * A map holding source file name and Properties object serving as a cache.
+     * Keys of lazy properties by source, for each class: keys of fields declared in the class and its superclasses,
+     * computed once per class (and attached to it, so that its class loader can be garbage collected).
+     */
+    private static final ClassValue<Map<String, Set<String>>> LAZY_KEYS = new ClassValue<Map<String, Set<String>>>() {
+        @Override
+        protected Map<String, Set<String>> computeValue(final Class<?> type) {
+            return getLazyKeys(type);
+        }
+    };
+
+    /**
+     * A cache of properties files.
+     */
+    private final PropertiesSourceCache<PropertiesIndex> propertiesSourceCache = new PropertiesSourceCache<>(this, PropertiesSource::getIndex, true);
+
+    /**
+     * A cache of properties files read lazily.
      */
-    private final Map<String, Properties> propertiesMap = new HashMap<>();
+    private final PropertiesSourceCache<LazyProperties> lazyPropertiesSourceCache = new PropertiesSourceCache<>(this, LazyProperties::new, false);
 
     @Override
     public Object processAnnotation(final Property property, final Field field) throws AnnotationProcessingException {
@@ -64,13 +88,8 @@ public class PropertyAnnotationProcessor extends AbstractAnnotationProcessor<Pro
         rejectIfEmpty(source, missingAttributeValue("source", annotationName, field));
         rejectIfEmpty(key, missingAttributeValue("key", annotationName, field));
 
-        //check if the source file is not already loaded
-        if (!propertiesMap.containsKey(source)) {
-            loadProperties(source);
-        }
-
-        //convert key value to the right type and set it to the field
-        String value = propertiesMap.get(source).getProperty(key);
+        //load the source file if it is not already loaded or has been modified
+        String value = property.lazy() ? getLazyProperty(source, key, field) : getProperty(loadProperties(source), key, source);
         if (value == null) {
             String message = String.format("Property '%s' on field '%s' of type '%s' in class '%s' not found in properties file '%s'",
                     key, field.getName(), field.getType().getName(), field.getDeclaringClass().getName(), source);
@@ -93,32 +112,83 @@ public class PropertyAnnotationProcessor extends AbstractAnnotationProcessor<Pro
 
     }
 
-    private void loadProperties(final String source) throws AnnotationProcessingException {
-        Properties properties = new Properties();
-        InputStream inputStream = null;
+    private PropertiesIndex loadProperties(final String source) throws AnnotationProcessingException {
         try {
-            inputStream = getResourceAsStream(source);
-            if (inputStream != null) {
-                properties.load(inputStream);
-                propertiesMap.put(source, properties);
-            } else {
+            PropertiesIndex properties = propertiesSourceCache.get(source);
+            if (properties == null) {
                 throw new AnnotationProcessingException(format("Unable to load properties from source '%s'", source));
             }
+            return properties;
         } catch (IOException e) {
             throw new AnnotationProcessingException(format("Unable to load properties from source '%s'", source), e);
-        } finally {
-            closeInputStream(inputStream);
         }
     }
 
-    private void closeInputStream(InputStream inputStream) {
-        if (inputStream != null) {
-            try {
-                inputStream.close();
-            } catch (IOException e) {
-                LOGGER.warn("Unable to close input stream", e);
+    private String getProperty(final PropertiesIndex properties, final String key, final String source) throws AnnotationProcessingException {
+        try {
+            return properties.getProperty(key);
+        } catch (IOException e) {
+            throw new AnnotationProcessingException(format("Unable to read property '%s' from source '%s'", key, source), e);
+        }
+    }
+
+    private String getLazyProperty(final String source, final String key, final Field field) throws AnnotationProcessingException {
+        //the key of the field itself is one of the lazy keys of its declaring class
+        Set<String> keys = getLazyKeys(field.getDeclaringClass(), source);
+        try {
+            LazyProperties properties = loadLazyProperties(source);
+            //the content may have been released before these keys were requested: read it again and resolve them in the same properties
+            while (!properties.expect(keys) && !properties.expect(keys, loadPropertiesSource(source))) {
+                //the content has changed since the properties were loaded
+                lazyPropertiesSourceCache.invalidate(source);
+                properties = loadLazyProperties(source);
+            }
+            return properties.getProperty(key);
+        } catch (IOException e) {
+            throw new AnnotationProcessingException(format("Unable to read property '%s' from source '%s'", key, source), e);
+        }
+    }
+
+    private LazyProperties loadLazyProperties(final String source) throws IOException, AnnotationProcessingException {
+        LazyProperties properties = lazyPropertiesSourceCache.get(source);
+        if (properties == null) {
+            throw new AnnotationProcessingException(format("Unable to load properties from source '%s'", source));
+        }
+        return properties;
+    }
+
+    private PropertiesSource loadPropertiesSource(final String source) throws IOException, AnnotationProcessingException {
+        PropertiesSource propertiesSource = PropertiesSourceStore.SHARED.get(source, this);
+        if (propertiesSource == null) {
+            throw new AnnotationProcessingException(format("Unable to load properties from source '%s'", source));
+        }
+        return propertiesSource;
+    }
+
+    /**
+     * Get keys of lazy properties read from a source by a class and its superclasses.
+     *
+     * @param type   the class
+     * @param source the properties source
+     * @return the keys of lazy properties of the class read from the source
+     */
+    static Set<String> getLazyKeys(final Class<?> type, final String source) {
+        return LAZY_KEYS.get(type).getOrDefault(source, Collections.emptySet());
+    }
+
+    private static Map<String, Set<String>> getLazyKeys(final Class<?> type) {
+        Map<String, Set<String>> keys = new HashMap<>();
+        // declared fields first, then inherited fields
+        for (Class<?> clazz = type; clazz != null; clazz = clazz.getSuperclass()) {
+            for (Field field : clazz.getDeclaredFields()) {
+                Property property = field.getAnnotation(Property.class);
+                if (property != null && property.lazy() && !property.key().trim().isEmpty()) {
+                    keys.computeIfAbsent(property.source().trim(), source -> new HashSet<>()).add(property.key().trim());
+                }
             }
         }
+        keys.replaceAll((source, sourceKeys) -> Collections.unmodifiableSet(sourceKeys));
+        return Collections.unmodifiableMap(keys);
     }
 
 }
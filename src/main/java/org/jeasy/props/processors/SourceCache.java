@@ -0,0 +1,105 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import org.jeasy.props.api.AnnotationProcessingException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread-safe cache of sources (configuration files, resource bundles, manifests, etc) loaded once per name.
+ *
+ * Reads of loaded sources are lock-free. A source which is not loaded yet is loaded by a single thread,
+ * while other threads asking for the same source wait for it (threads asking for other sources are not
+ * blocked). A source which cannot be loaded (the loader returns {@code null} or fails) is not cached:
+ * loading it is attempted again on next access.
+ *
+ * @param <V> the type of sources
+ * @author Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ */
+final class SourceCache<V> {
+
+    /**
+     * Loader of a source.
+     *
+     * @param <V> the type of sources
+     */
+    @FunctionalInterface
+    interface Loader<V> {
+
+        /**
+         * Load a source.
+         *
+         * @param name the source name
+         * @return the source or {@code null} if it does not exist
+         * @throws AnnotationProcessingException if the source cannot be loaded
+         */
+        V load(String name) throws AnnotationProcessingException;
+    }
+
+    private final ConcurrentMap<String, Slot<V>> slots = new ConcurrentHashMap<>();
+
+    /**
+     * Get a source, loading it if needed.
+     *
+     * @param name   the source name
+     * @param loader the loader of the source
+     * @return the source or {@code null} if it does not exist
+     * @throws AnnotationProcessingException if the source cannot be loaded
+     */
+    V get(final String name, final Loader<V> loader) throws AnnotationProcessingException {
+        Slot<V> slot = slots.get(name);
+        if (slot == null) {
+            slot = slots.computeIfAbsent(name, n -> new Slot<>());
+        }
+        V value = slot.value;
+        if (value == null) {
+            synchronized (slot) {
+                value = slot.value;
+                if (value == null) {
+                    value = loader.load(name);
+                    slot.value = value;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Get a source if it is already loaded.
+     *
+     * @param name the source name
+     * @return the source or {@code null} if it is not loaded
+     */
+    V getIfPresent(final String name) {
+        Slot<V> slot = slots.get(name);
+        return slot != null ? slot.value : null;
+    }
+
+    private static final class Slot<V> {
+        private volatile V value;
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.lang.invoke.MethodHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URL;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BuiltinTypeConvertersTest {
+
+    private static Object convert(final Class<?> type, final Object value) throws Throwable {
+        MethodHandle converter = BuiltinTypeConverters.getConverter(type).asType(methodType(Object.class, Object.class));
+        return converter.invokeExact(value);
+    }
+
+    @Test
+    public void testPrimitiveConverters() throws Throwable {
+        assertThat(convert(byte.class, "1")).isEqualTo((byte) 1);
+        assertThat(convert(short.class, "2")).isEqualTo((short) 2);
+        assertThat(convert(int.class, " 3 ")).isEqualTo(3);
+        assertThat(convert(long.class, "4")).isEqualTo(4L);
+        assertThat(convert(float.class, "5.5")).isEqualTo(5.5f);
+        assertThat(convert(double.class, "6.5")).isEqualTo(6.5d);
+        assertThat(convert(boolean.class, "yes")).isEqualTo(true);
+        assertThat(convert(boolean.class, "OFF")).isEqualTo(false);
+        assertThat(convert(char.class, "c")).isEqualTo('c');
+    }
+
+    @Test
+    public void testPrimitiveConvertersReturnPrimitiveValues() {
+        assertThat(BuiltinTypeConverters.getConverter(int.class).type()).isEqualTo(methodType(int.class, Object.class));
+        assertThat(BuiltinTypeConverters.getConverter(Integer.class).type()).isEqualTo(methodType(Integer.class, Object.class));
+    }
+
+    @Test
+    public void testWrapperConverters() throws Throwable {
+        assertThat(convert(Integer.class, "42")).isEqualTo(42);
+        assertThat(convert(Long.class, 42)).isEqualTo(42L);
+        assertThat(convert(Boolean.class, "true")).isEqualTo(true);
+    }
+
+    @Test
+    public void testObjectConverters() throws Throwable {
+        assertThat(convert(String.class, 42)).isEqualTo("42");
+        assertThat(convert(BigDecimal.class, "1.50")).isEqualTo(new BigDecimal("1.50"));
+        assertThat(convert(BigInteger.class, "12345678901234567890")).isEqualTo(new BigInteger("12345678901234567890"));
+        assertThat(convert(Duration.class, "PT15S")).isEqualTo(Duration.ofSeconds(15));
+        assertThat(convert(Path.class, "/tmp/foo")).isEqualTo(Paths.get("/tmp/foo"));
+        assertThat(convert(File.class, "/tmp/foo")).isEqualTo(new File("/tmp/foo"));
+        assertThat(convert(URI.class, "http://localhost:8080")).isEqualTo(URI.create("http://localhost:8080"));
+        assertThat(convert(URL.class, "http://localhost:8080")).isEqualTo(new URL("http://localhost:8080"));
+        assertThat(convert(Class.class, "java.lang.String")).isEqualTo(String.class);
+        assertThat(convert(TimeUnit.class, "SECONDS")).isEqualTo(TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testArrayConverters() throws Throwable {
+        assertThat((String[]) convert(String[].class, "a, b,c")).containsExactly("a", "b", "c");
+        assertThat((int[]) convert(int[].class, "{1,2,3}")).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void testValuesOfTargetTypeAreReturnedAsIs() throws Throwable {
+        java.util.Properties properties = new java.util.Properties();
+        Duration duration = Duration.ofMinutes(1);
+
+        assertThat(convert(java.util.Properties.class, properties)).isSameAs(properties);
+        assertThat(convert(Duration.class, duration)).isSameAs(duration);
+    }
+
+    @Test
+    public void testConversionsOfImmutableTypesAreCached() throws Throwable {
+        Object bigDecimal = convert(BigDecimal.class, "3.14159265358979323846");
+
+        assertThat(convert(BigDecimal.class, "3.14159265358979323846")).isSameAs(bigDecimal);
+        assertThat(convert(BigDecimal.class, "2.71828182845904523536")).isNotSameAs(bigDecimal);
+        assertThat((BigDecimal[]) convert(BigDecimal[].class, "3.14159265358979323846")).containsExactly((BigDecimal) bigDecimal);
+        assertThat(convert(URI.class, "https://github.com/j-easy")).isSameAs(convert(URI.class, "https://github.com/j-easy"));
+    }
+
+    @Test
+    public void testInvalidValue() {
+        assertThatThrownBy(() -> convert(int.class, "foo")).isInstanceOf(NumberFormatException.class);
+        assertThatThrownBy(() -> convert(boolean.class, "foo")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> convert(TimeUnit.class, "foo")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
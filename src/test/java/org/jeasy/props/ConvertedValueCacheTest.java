@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConvertedValueCacheTest {
+
+    @Test
+    public void convertedValuesShouldBeCachedByRawValue() {
+        //given
+        ConvertedValueCache convertedValueCache = new ConvertedValueCache(16);
+        BigDecimal value = new BigDecimal("1.5");
+
+        //when
+        convertedValueCache.put("1.5", value);
+
+        //then
+        assertThat(convertedValueCache.get("1.5")).isSameAs(value);
+        assertThat(convertedValueCache.get("1.50")).isNull();
+    }
+
+    @Test
+    public void cacheShouldNotExceedItsMaximumSize() {
+        //given
+        ConvertedValueCache convertedValueCache = new ConvertedValueCache(16);
+
+        //when
+        for (int i = 0; i < 1000; i++) {
+            convertedValueCache.put(String.valueOf(i), new BigDecimal(i));
+        }
+
+        //then
+        assertThat(convertedValueCache.size()).isEqualTo(16);
+        assertThat(convertedValueCache.get("0")).isNull();
+        assertThat(convertedValueCache.get("999")).isEqualTo(new BigDecimal(999));
+    }
+
+    @Test
+    public void recentlyUsedValuesShouldNotBeEvicted() {
+        //given
+        ConvertedValueCache convertedValueCache = new ConvertedValueCache(16);
+        for (int i = 0; i < 16; i++) {
+            convertedValueCache.put(String.valueOf(i), new BigDecimal(i));
+        }
+
+        //when
+        for (int i = 16; i < 1000; i++) {
+            convertedValueCache.get("0");
+            convertedValueCache.put(String.valueOf(i), new BigDecimal(i));
+        }
+
+        //then
+        assertThat(convertedValueCache.get("0")).isEqualTo(BigDecimal.ZERO);
+        assertThat(convertedValueCache.size()).isEqualTo(16);
+    }
+
+    @Test
+    public void cacheShouldNotExceedItsMaximumSizeUnderConcurrentInsertions() throws Exception {
+        //given
+        ConvertedValueCache convertedValueCache = new ConvertedValueCache(16);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            int offset = t * 10000;
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    String value = String.valueOf(offset + i);
+                    convertedValueCache.put(value, new BigDecimal(value));
+                    convertedValueCache.get(value);
+                }
+            });
+        }
+
+        //when
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        //then
+        assertThat(convertedValueCache.size()).isEqualTo(16);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.junit.Test;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import static java.lang.invoke.MethodType.methodType;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FieldWriterTest {
+
+    static class Bean {
+        private String name;
+        private final String finalName = "init";
+        private int intValue;
+        private long longValue;
+        private static String staticName;
+    }
+
+    @Test
+    public void testWritingPrivateField() throws Throwable {
+        //given
+        Bean bean = new Bean();
+        FieldWriter fieldWriter = FieldWriter.of(Bean.class.getDeclaredField("name"));
+
+        //when
+        fieldWriter.set(bean, "foo");
+
+        //then
+        assertThat(bean.name).isEqualTo("foo");
+    }
+
+    @Test
+    public void testWritingFinalField() throws Throwable {
+        //given
+        Bean bean = new Bean();
+        FieldWriter fieldWriter = FieldWriter.of(Bean.class.getDeclaredField("finalName"));
+
+        //when
+        fieldWriter.set(bean, "foo");
+
+        //then
+        assertThat(Bean.class.getDeclaredField("finalName").get(bean)).isEqualTo("foo");
+    }
+
+    @Test
+    public void testWritingStaticField() throws Throwable {
+        //given
+        FieldWriter fieldWriter = FieldWriter.of(Bean.class.getDeclaredField("staticName"));
+
+        //when
+        fieldWriter.set(new Bean(), "foo");
+
+        //then
+        assertThat(Bean.staticName).isEqualTo("foo");
+    }
+
+    @Test
+    public void testWritingPrimitiveFieldWithBoxedValue() throws Throwable {
+        //given
+        Bean bean = new Bean();
+
+        //when
+        FieldWriter.of(Bean.class.getDeclaredField("intValue")).set(bean, 42);
+
+        //then
+        assertThat(bean.intValue).isEqualTo(42);
+    }
+
+    @Test
+    public void testWritingWithConverter() throws Throwable {
+        //given
+        Bean bean = new Bean();
+        MethodHandle converter = MethodHandles.lookup().findStatic(Integer.class, "valueOf", methodType(Integer.class, String.class))
+                .asType(methodType(Object.class, Object.class));
+        FieldWriter fieldWriter = FieldWriter.of(Bean.class.getDeclaredField("intValue")).withConverter(converter);
+
+        //when
+        fieldWriter.convertAndSet(bean, "42");
+
+        //then
+        assertThat(bean.intValue).isEqualTo(42);
+    }
+
+    @Test
+    public void testWritingWithPrimitiveConverter() throws Throwable {
+        //given
+        Bean bean = new Bean();
+        MethodHandle converter = MethodHandles.lookup().findStatic(Long.class, "parseLong", methodType(long.class, String.class))
+                .asType(methodType(long.class, Object.class));
+        FieldWriter fieldWriter = FieldWriter.of(Bean.class.getDeclaredField("longValue")).withConverter(converter);
+
+        //when
+        fieldWriter.convertAndSet(bean, "42");
+
+        //then
+        assertThat(bean.longValue).isEqualTo(42L);
+    }
+}
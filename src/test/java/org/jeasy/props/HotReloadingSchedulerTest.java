@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HotReloadingSchedulerTest {
+
+    @Test
+    public void whenTaskIsTriggeredWhileRunning_thenItShouldRunOnceMoreAfterCompletion() throws Exception {
+        //given
+        HotReloadingScheduler scheduler = new HotReloadingScheduler(2, false, 2);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Runnable task = scheduler.newTask(() -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            running.decrementAndGet();
+        });
+        scheduler.schedule(task, 0, TimeUnit.MILLISECONDS);
+        started.await();
+
+        //when
+        scheduler.schedule(task, 0, TimeUnit.MILLISECONDS);
+        scheduler.schedule(task, 0, TimeUnit.MILLISECONDS);
+        Thread.sleep(100);
+        release.countDown();
+        Thread.sleep(100);
+
+        //then
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenTaskFailsWithAnError_thenItShouldKeepRunning() throws Exception {
+        //given
+        HotReloadingScheduler scheduler = new HotReloadingScheduler(1, false, 1);
+        CountDownLatch runs = new CountDownLatch(3);
+        Runnable task = scheduler.newTask(() -> {
+            runs.countDown();
+            throw new LinkageError("failure");
+        });
+
+        //when
+        scheduler.scheduleAtFixedRate(task, 10, 0, TimeUnit.MILLISECONDS);
+
+        //then
+        assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void whenMaxConcurrentTasksIsReached_thenOtherTasksShouldWait() throws Exception {
+        //given
+        HotReloadingScheduler scheduler = new HotReloadingScheduler(4, true, 1);
+        CountDownLatch done = new CountDownLatch(4);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        //when
+        for (int i = 0; i < 4; i++) {
+            scheduler.schedule(scheduler.newTask(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                sleep(20);
+                running.decrementAndGet();
+                done.countDown();
+            }), 0, TimeUnit.MILLISECONDS);
+        }
+
+        //then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void whenJitterIsSet_thenFirstRunShouldBeDelayedByAtMostTheJitter() throws Exception {
+        //given
+        HotReloadingScheduler scheduler = new HotReloadingScheduler(1, false, 1);
+        CountDownLatch done = new CountDownLatch(1);
+
+        //when
+        scheduler.scheduleAtFixedRate(scheduler.newTask(done::countDown), 1, 200, TimeUnit.MILLISECONDS);
+
+        //then
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.jeasy.props.annotations.DBProperty;
+import org.jeasy.props.annotations.EnvironmentVariable;
+import org.jeasy.props.annotations.Property;
+import org.jeasy.props.annotations.SystemProperty;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InjectionPlanTest {
+
+    private PropertyInjector propertyInjector;
+
+    @Before
+    public void setUp() {
+        propertyInjector = new PropertyInjector();
+    }
+
+    @Test
+    public void testInjectionPlanOfDeclaredAndInheritedFields() {
+        //given
+        class Parent {
+            @SystemProperty("parent")
+            private String parentProperty;
+            private String notAnnotated;
+        }
+        class Child extends Parent {
+            @SystemProperty("child")
+            private String childProperty;
+        }
+
+        //when
+        InjectionPlan injectionPlan = propertyInjector.createInjectionPlan(Child.class);
+
+        //then
+        assertThat(injectionPlan.getType()).isEqualTo(Child.class);
+        assertThat(injectionPlan.getFieldInjectionPlans())
+                .extracting(fieldInjectionPlan -> fieldInjectionPlan.getField().getName())
+                .containsExactly("childProperty", "parentProperty");
+    }
+
+    @Test
+    public void testInjectionPlanAnnotationsOrder() {
+        //given
+        class Bean {
+            @Property(source = "myProperties.properties", key = "bean.name", order = 2)
+            @SystemProperty(value = "bean.name", order = 1)
+            private String property;
+        }
+
+        //when
+        FieldInjectionPlan fieldInjectionPlan = propertyInjector.createInjectionPlan(Bean.class).getFieldInjectionPlans().get(0);
+
+        //then
+        assertThat(fieldInjectionPlan.getAnnotationCount()).isEqualTo(2);
+        assertThat(fieldInjectionPlan.getAnnotation(0)).isInstanceOf(SystemProperty.class);
+        assertThat(fieldInjectionPlan.getAnnotation(1)).isInstanceOf(Property.class);
+        assertThat(fieldInjectionPlan.getAnnotationProcessor(0)).isNotNull();
+        assertThat(fieldInjectionPlan.getAnnotationProcessor(1)).isNotNull();
+    }
+
+    @Test
+    public void testIndependentFieldGroupsOfInjectionPlan() {
+        //given
+        class Bean {
+            @SystemProperty("a")
+            private String a;
+            @EnvironmentVariable("B")
+            private String b;
+            @Property(source = "myProperties.properties", key = "c")
+            @SystemProperty("c")
+            private String c;
+            @DBProperty(configuration = "database.properties", key = "d")
+            private String d;
+            @DBProperty(configuration = "other-database.properties", key = "e")
+            private String e;
+            @SystemProperty("c")
+            private String f;
+        }
+
+        //when
+        List<int[]> groups = propertyInjector.createInjectionPlan(Bean.class).getIndependentFieldGroups();
+
+        //then
+        assertThat(groups).containsExactly(new int[]{0}, new int[]{1}, new int[]{2, 5}, new int[]{3}, new int[]{4});
+    }
+
+}
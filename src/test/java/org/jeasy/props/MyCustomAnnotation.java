@@ -34,4 +34,6 @@ public @interface MyCustomAnnotation {
 
     String value();
 
+    int order() default 0;
+
 }
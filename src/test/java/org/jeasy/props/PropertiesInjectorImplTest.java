@@ -23,10 +23,30 @@
  */
 package org.jeasy.props;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
+import org.jeasy.props.annotations.HotReload;
+import org.jeasy.props.annotations.SystemProperty;
+import org.jeasy.props.api.AnnotationProcessor;
+import org.jeasy.props.api.InjectionReport;
 import org.jeasy.props.api.PropertiesInjector;
+import org.jeasy.props.api.PropertyInjectionException;
 import org.jeasy.props.api.TypeConverter;
 import org.junit.Before;
 import org.junit.Test;
@@ -39,8 +59,10 @@ import javax.management.ObjectName;
 import static org.jeasy.props.PropertiesInjectorBuilder.aNewPropertiesInjector;
 import static org.jeasy.props.PropertiesInjectorBuilder.aNewPropertiesInjectorBuilder;
 import static java.lang.Thread.sleep;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.lang.management.ManagementFactory.getPlatformMBeanServer;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
 
 public class PropertiesInjectorImplTest {
 
@@ -55,6 +77,24 @@ public class PropertiesInjectorImplTest {
                 .build();
     }
 
+    @Test
+    public void annotationsWithoutProcessorShouldBeIgnoredAndCustomAnnotationsShouldBeOrdered() {
+        //given
+        class Bean {
+            @Deprecated
+            @SystemProperty(value = "user.home")
+            @MyCustomAnnotation(value = "custom", order = -1)
+            private String value;
+        }
+        Bean bean = new Bean();
+
+        //when
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.value).isEqualTo("custom");
+    }
+
     @Test
     public void testCustomAnnotationProcessor() {
         //given
@@ -79,6 +119,289 @@ public class PropertiesInjectorImplTest {
         assertThat(config.getDate()).isEqualTo(LocalDate.of(2020, 3, 1));
     }
 
+    @Test
+    public void whenTypeConverterIsRegisteredAfterFirstInjection_thenItShouldBeUsedInSubsequentInjections() {
+        //given
+        class Bean {
+            @SystemProperty("date")
+            private String date;
+        }
+        PropertiesInjectorBuilder builder = aNewPropertiesInjectorBuilder();
+        PropertiesInjector injector = builder.build();
+        Bean bean = new Bean();
+        injector.injectProperties(bean);
+        assertThat(bean.date).isEqualTo("01/03/2020");
+
+        //when
+        builder.registerTypeConverter(String.class, (TypeConverter<String, String>) source -> source.replace('/', '-'));
+        injector.injectProperties(bean);
+
+        //then
+        assertThat(bean.date).isEqualTo("01-03-2020");
+    }
+
+    @Test
+    public void whenValueIsUnchangedSincePreviousInjection_thenFieldShouldNotBeWrittenAgain() {
+        //given
+        class Bean {
+            @SystemProperty("sp")
+            private String systemProperty;
+        }
+        System.setProperty("sp", "foo");
+        PropertiesInjectorImpl injector = (PropertiesInjectorImpl) aNewPropertiesInjector();
+        Bean bean = new Bean();
+        Object[] injectedValues = injector.injectProperties(bean, null);
+        bean.systemProperty = "changed";
+
+        //when
+        injectedValues = injector.injectProperties(bean, injectedValues);
+
+        //then
+        assertThat(bean.systemProperty).isEqualTo("changed");
+
+        // a changed value should be written again
+        System.setProperty("sp", "bar");
+        injector.injectProperties(bean, injectedValues);
+        assertThat(bean.systemProperty).isEqualTo("bar");
+    }
+
+    @Test
+    public void whenReloadIsAtomicAndAValueCannotBeConverted_thenNoFieldShouldBeWritten() {
+        //given
+        class Bean {
+            @SystemProperty("atomic.host")
+            private String host;
+            @SystemProperty("atomic.port")
+            private int port;
+        }
+        System.setProperty("atomic.host", "localhost");
+        System.setProperty("atomic.port", "8080");
+        PropertiesInjectorImpl injector = (PropertiesInjectorImpl) aNewPropertiesInjector();
+        Bean bean = new Bean();
+        PropertiesInjectionTask task = new PropertiesInjectionTask(injector, bean, true);
+        task.run();
+
+        //when
+        System.setProperty("atomic.host", "remotehost");
+        System.setProperty("atomic.port", "invalid");
+        task.run();
+
+        //then
+        assertThat(bean.host).isEqualTo("localhost");
+        assertThat(bean.port).isEqualTo(8080);
+
+        // a valid configuration should be published
+        System.setProperty("atomic.port", "9090");
+        task.run();
+        assertThat(bean.host).isEqualTo("remotehost");
+        assertThat(bean.port).isEqualTo(9090);
+    }
+
+    @Test
+    public void testConsistentReadOfAtomicallyReloadedConfiguration() {
+        //given
+        System.setProperty("atomic.host", "localhost");
+        System.setProperty("atomic.port", "8080");
+        AtomicConfig config = new AtomicConfig();
+        propertiesInjector.injectProperties(config);
+
+        //when
+        String address = propertiesInjector.read(config, c -> c.getHost() + ":" + c.getPort());
+
+        //then
+        assertThat(address).isEqualTo("localhost:8080");
+    }
+
+    @Test
+    public void whenResolutionIsParallel_thenIndependentFieldsShouldBeResolvedConcurrently() {
+        //given
+        class Bean {
+            @MyCustomAnnotation("custom")
+            private String custom;
+            @SystemProperty("system")
+            private String system;
+        }
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        PropertiesInjector injector = aNewPropertiesInjectorBuilder()
+                .registerAnnotationProcessor(MyCustomAnnotation.class, (AnnotationProcessor<MyCustomAnnotation>) (annotation, field) -> await(barrier, annotation.value()))
+                .registerAnnotationProcessor(SystemProperty.class, (AnnotationProcessor<SystemProperty>) (annotation, field) -> await(barrier, annotation.value()))
+                .parallelResolution(ForkJoinPool.commonPool())
+                .build();
+        Bean bean = new Bean();
+
+        //when
+        injector.injectProperties(bean);
+
+        //then
+        assertThat(bean.custom).isEqualTo("custom");
+        assertThat(bean.system).isEqualTo("system");
+    }
+
+    @Test
+    public void whenResolutionIsParallelAndAFieldCannotBeResolved_thenNoFieldShouldBeWritten() {
+        //given
+        class Bean {
+            @MyCustomAnnotation("custom")
+            private String custom;
+            @SystemProperty(value = "missing.parallel.key", failFast = true)
+            private String system;
+        }
+        PropertiesInjector injector = aNewPropertiesInjectorBuilder()
+                .registerAnnotationProcessor(MyCustomAnnotation.class, new MyCustomAnnotationProcessor())
+                .parallelResolution(ForkJoinPool.commonPool())
+                .build();
+        Bean bean = new Bean();
+
+        //when
+        Throwable throwable = catchThrowable(() -> injector.injectProperties(bean));
+
+        //then
+        assertThat(throwable).isInstanceOf(PropertyInjectionException.class);
+        assertThat(bean.custom).isNull();
+    }
+
+    @Test
+    public void testBulkPropertiesInjection() {
+        //given
+        class Bean {
+            @MyCustomAnnotation("custom")
+            private String custom;
+        }
+        class FailingBean {
+            @SystemProperty(value = "missing.bulk.key", failFast = true)
+            private String system;
+        }
+        AtomicInteger invocations = new AtomicInteger();
+        PropertiesInjector injector = aNewPropertiesInjectorBuilder()
+                .registerAnnotationProcessor(MyCustomAnnotation.class, (AnnotationProcessor<MyCustomAnnotation>) (annotation, field) -> {
+                    invocations.incrementAndGet();
+                    return annotation.value();
+                })
+                .build();
+        Bean bean1 = new Bean();
+        Bean bean2 = new Bean();
+        FailingBean failingBean = new FailingBean();
+
+        //when
+        InjectionReport report = injector.injectProperties(Arrays.asList(bean1, failingBean, bean2));
+
+        //then
+        assertThat(bean1.custom).isEqualTo("custom");
+        assertThat(bean2.custom).isEqualTo("custom");
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(report.getObjectCount()).isEqualTo(3);
+        assertThat(report.getSuccessCount()).isEqualTo(2);
+        assertThat(report.getFailures()).containsOnlyKeys(failingBean);
+    }
+
+    @Test
+    public void testBulkPropertiesInjectionFromStream() {
+        //given
+        System.setProperty("sp", "foo");
+        ManageableConfig config1 = new ManageableConfig();
+        ManageableConfig config2 = new ManageableConfig();
+
+        //when
+        InjectionReport report = aNewPropertiesInjector().injectProperties(Stream.of(config1, config2));
+
+        //then
+        assertThat(report.hasFailures()).isFalse();
+        assertThat(config1.getSystemProperty()).isEqualTo("foo");
+        assertThat(config2.getSystemProperty()).isEqualTo("foo");
+    }
+
+    @Test
+    public void testAsynchronousPropertiesInjection() throws Exception {
+        //given
+        System.setProperty("sp", "foo");
+        Config config = new Config();
+
+        //when
+        CompletableFuture<Void> future = propertiesInjector.injectPropertiesAsync(config, ForkJoinPool.commonPool());
+
+        //then
+        future.get(5, TimeUnit.SECONDS);
+        assertThat(config.getCustom()).isEqualTo("foo");
+        assertThat(config.getDate()).isEqualTo(LocalDate.of(2020, 3, 1));
+    }
+
+    @Test
+    public void whenAsynchronousProcessorIsOverridden_thenItShouldBeUsed() throws Exception {
+        //given
+        class Bean {
+            @MyCustomAnnotation("custom")
+            private String custom;
+        }
+        CompletableFuture<Object> value = new CompletableFuture<>();
+        PropertiesInjector injector = aNewPropertiesInjectorBuilder()
+                .registerAnnotationProcessor(MyCustomAnnotation.class, new AnnotationProcessor<MyCustomAnnotation>() {
+                    @Override
+                    public Object processAnnotation(MyCustomAnnotation annotation, Field field) {
+                        throw new UnsupportedOperationException();
+                    }
+
+                    @Override
+                    public CompletableFuture<Object> processAnnotationAsync(MyCustomAnnotation annotation, Field field, Executor executor) {
+                        return value;
+                    }
+                })
+                .build();
+        Bean bean = new Bean();
+
+        //when
+        CompletableFuture<Void> future = injector.injectPropertiesAsync(bean, ForkJoinPool.commonPool());
+        assertThat(future).isNotDone();
+        value.complete("async");
+
+        //then
+        future.get(5, TimeUnit.SECONDS);
+        assertThat(bean.custom).isEqualTo("async");
+    }
+
+    @Test
+    public void whenAsynchronousInjectionFails_thenFutureShouldCompleteExceptionally() {
+        //given
+        class Bean {
+            @SystemProperty(value = "missing.async.key", failFast = true)
+            private String system;
+        }
+
+        //when
+        CompletableFuture<Void> future = propertiesInjector.injectPropertiesAsync(new Bean(), ForkJoinPool.commonPool());
+        Throwable throwable = catchThrowable(future::join);
+
+        //then
+        assertThat(throwable).isInstanceOf(CompletionException.class).hasCauseInstanceOf(PropertyInjectionException.class);
+    }
+
+    @Test
+    public void whenInjectionPlanOfAsynchronousInjectionCannotBeCreated_thenFutureShouldCompleteExceptionally() {
+        //given
+        BeanWithConstant bean = new BeanWithConstant();
+
+        //when
+        CompletableFuture<Void> future = propertiesInjector.injectPropertiesAsync(bean, ForkJoinPool.commonPool());
+        Throwable throwable = catchThrowable(future::join);
+
+        //then
+        assertThat(throwable).isInstanceOf(CompletionException.class).hasCauseInstanceOf(PropertyInjectionException.class);
+    }
+
+    static class BeanWithConstant {
+        @SystemProperty("constant")
+        private static final String CONSTANT = "constant";
+    }
+
+    private static String await(CyclicBarrier barrier, String value) {
+        try {
+            // fails if the other field is not resolved at the same time
+            barrier.await(5, TimeUnit.SECONDS);
+            return value;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     @Test
     public void testConfigurationHotReloading() throws Exception {
         //given
@@ -102,6 +425,140 @@ public class PropertiesInjectorImplTest {
         database.shutdown();
     }
 
+    @Test
+    public void testConfigurationHotReloadingOnFileChange() throws Exception {
+        //given
+        Path file = Paths.get("target/watched.properties");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "name=Foo".getBytes());
+        WatchedConfig config = new WatchedConfig();
+
+        //when
+        propertiesInjector.injectProperties(config);
+
+        //then
+        assertThat(config.getName()).isEqualTo("Foo");
+
+        // File changes should be reloaded without waiting for the (one hour) period
+        Files.write(file, "name=Bar".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        for (int i = 0; i < 100 && !"Bar".equals(config.getName()); i++) {
+            sleep(100);
+        }
+        assertThat(config.getName()).isEqualTo("Bar");
+    }
+
+    @Test
+    public void whenWatchingObjectIsUnregistered_thenOtherObjectsReadingTheFileShouldStillBeReloaded() throws Exception {
+        //given
+        Path file = Paths.get("target/watched.properties");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "name=Foo".getBytes());
+        WatchedConfig config = new WatchedConfig();
+        WatchedConfig otherConfig = new WatchedConfig();
+        propertiesInjector.injectProperties(config);
+        propertiesInjector.injectProperties(otherConfig);
+
+        //when
+        propertiesInjector.unregister(config);
+        Files.write(file, "name=Bar".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        for (int i = 0; i < 100 && !"Bar".equals(otherConfig.getName()); i++) {
+            sleep(100);
+        }
+
+        //then
+        assertThat(otherConfig.getName()).isEqualTo("Bar");
+        assertThat(config.getName()).isEqualTo("Foo");
+    }
+
+    @Test
+    public void whenObjectIsUnregistered_thenItShouldNotBeReloadedAnymore() throws Exception {
+        //given
+        @HotReload(period = 50, unit = MILLISECONDS)
+        class Bean {
+            @SystemProperty("unregistered")
+            private volatile String value;
+        }
+        System.setProperty("unregistered", "foo");
+        Bean bean = new Bean();
+        Bean otherBean = new Bean();
+        propertiesInjector.injectProperties(bean);
+        propertiesInjector.injectProperties(otherBean);
+
+        //when
+        propertiesInjector.unregister(bean);
+        System.setProperty("unregistered", "bar");
+        // wait for reloads to happen after the object has been unregistered
+        for (int i = 0; i < 100 && !"bar".equals(otherBean.value); i++) {
+            sleep(20);
+        }
+
+        //then
+        assertThat(otherBean.value).isEqualTo("bar");
+        assertThat(bean.value).isEqualTo("foo");
+    }
+
+    @Test
+    public void whenHotReloadableObjectIsNotReferencedAnymore_thenItShouldBeGarbageCollected() throws Exception {
+        //given
+        HotReloadableConfig config = new HotReloadableConfig();
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().setName("test").addScript("database.sql").build();
+        propertiesInjector.injectProperties(config);
+        WeakReference<HotReloadableConfig> reference = new WeakReference<>(config);
+
+        //when
+        config = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            sleep(20);
+        }
+
+        //then
+        assertThat(reference.get()).isNull();
+        database.shutdown();
+    }
+
+    @Test
+    public void whenManageableObjectIsUnregistered_thenItsMBeanShouldBeUnregistered() throws Exception {
+        //given
+        ObjectName objectName = new ObjectName("org.jeasy.props:name=myConfig");
+        if (getPlatformMBeanServer().isRegistered(objectName)) {
+            getPlatformMBeanServer().unregisterMBean(objectName);
+        }
+        ManageableConfig config = new ManageableConfig();
+        PropertiesInjector injector = aNewPropertiesInjector();
+        injector.injectProperties(config);
+        assertThat(getPlatformMBeanServer().isRegistered(objectName)).isTrue();
+
+        //when
+        injector.unregister(config);
+
+        //then
+        assertThat(getPlatformMBeanServer().isRegistered(objectName)).isFalse();
+    }
+
+    @Test
+    public void whenInjectorIsClosed_thenObjectsShouldNotBeReloadedAnymore() throws Exception {
+        //given
+        @HotReload(period = 50, unit = MILLISECONDS)
+        class Bean {
+            @SystemProperty("closed")
+            private volatile String value;
+        }
+        System.setProperty("closed", "foo");
+        Bean bean = new Bean();
+        PropertiesInjector injector = aNewPropertiesInjector();
+        injector.injectProperties(bean);
+
+        //when
+        injector.close();
+        System.setProperty("closed", "bar");
+
+        //then (reloading threads are terminated when close returns, so the object cannot be reloaded anymore)
+        assertThat(bean.value).isEqualTo("foo");
+    }
+
     @Test
     public void testManageableConfiguration() throws Exception {
         System.setProperty("sp", "foo");
@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.jeasy.props.annotations.Property;
+import org.jeasy.props.annotations.SystemProperty;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+
+import static org.jeasy.props.PropertiesInjectorBuilder.aNewPropertiesInjector;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SourceIndexTest {
+
+    @Test
+    public void testSourcesOfAnnotatedFields() {
+        //given
+        class Bean {
+            @Property(source = "file:target/../target/indexed.properties", key = "name")
+            @SystemProperty("name")
+            private String name;
+            @Property(source = "classpath:myProperties.properties", key = "bean.name")
+            private String beanName;
+        }
+        SourceIndex sourceIndex = new SourceIndex();
+        PropertiesInjectorImpl injector = (PropertiesInjectorImpl) aNewPropertiesInjector();
+        InjectionPlan injectionPlan = new PropertyInjector().createInjectionPlan(Bean.class);
+
+        //when
+        Set<String> sources = sourceIndex.register(new PropertiesInjectionTask(injector, new Bean()), injectionPlan);
+
+        //then
+        assertThat(sources).containsExactlyInAnyOrder(
+                "file:" + Paths.get("target/indexed.properties").toAbsolutePath(),
+                "system:name",
+                "classpath:myProperties.properties");
+    }
+
+    @Test
+    public void whenBuiltInProcessorIsReplaced_thenSourcesOfItsAnnotationShouldBeUnknown() {
+        //given
+        class Bean {
+            @Property(source = "classpath:myProperties.properties", key = "bean.name")
+            private String beanName;
+        }
+        PropertyInjector propertyInjector = new PropertyInjector();
+        propertyInjector.addAnnotationProcessor(Property.class, (annotation, field) -> "custom");
+        SourceIndex sourceIndex = new SourceIndex();
+        PropertiesInjectorImpl injector = (PropertiesInjectorImpl) aNewPropertiesInjector();
+
+        //when
+        Set<String> sources = sourceIndex.register(new PropertiesInjectionTask(injector, new Bean()), propertyInjector.createInjectionPlan(Bean.class));
+
+        //then
+        assertThat(sources).isEmpty();
+    }
+
+    @Test
+    public void whenSourceIsReloaded_thenOnlyFieldsReadingItShouldBeInjected() throws Exception {
+        //given
+        class Bean {
+            @Property(source = "file:target/indexed.properties", key = "name")
+            private String name;
+            @SystemProperty("indexed")
+            private String systemProperty;
+        }
+        Path file = Paths.get("target/indexed.properties");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "name=Foo".getBytes());
+        System.setProperty("indexed", "foo");
+        PropertiesInjectorImpl injector = (PropertiesInjectorImpl) aNewPropertiesInjector();
+        InjectionPlan injectionPlan = new PropertyInjector().createInjectionPlan(Bean.class);
+        SourceIndex sourceIndex = new SourceIndex();
+        Bean bean1 = new Bean();
+        Bean bean2 = new Bean();
+        PropertiesInjectionTask task1 = new PropertiesInjectionTask(injector, bean1);
+        PropertiesInjectionTask task2 = new PropertiesInjectionTask(injector, bean2);
+        task1.run();
+        task2.run();
+        sourceIndex.register(task1, injectionPlan);
+        sourceIndex.register(task2, injectionPlan);
+
+        //when
+        Files.write(file, "name=Bar".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        System.setProperty("indexed", "bar");
+        sourceIndex.reload("file:" + file.toAbsolutePath(), task1);
+
+        //then
+        assertThat(bean1.name).isEqualTo("Bar");
+        assertThat(bean1.systemProperty).isEqualTo("foo");
+        assertThat(bean2.name).isEqualTo("Foo");
+        assertThat(bean2.systemProperty).isEqualTo("foo");
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TargetLocksTest {
+
+    @Test
+    public void locksShouldBeLookedUpByIdentity() {
+        //given
+        TargetLocks targetLocks = new TargetLocks();
+        String target = new String("target");
+        StampedLock lock = new StampedLock();
+
+        //when
+        targetLocks.put(new WeakReference<>(target), System.identityHashCode(target), lock);
+
+        //then
+        assertThat(targetLocks.get(target)).isSameAs(lock);
+        assertThat(targetLocks.get(new String("target"))).isNull();
+    }
+
+    @Test
+    public void locksShouldBeFoundAfterTheTableGrows() {
+        //given
+        TargetLocks targetLocks = new TargetLocks();
+        List<Object> targets = new ArrayList<>();
+        List<StampedLock> locks = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 1000; i++) {
+            Object target = new Object();
+            StampedLock lock = new StampedLock();
+            targetLocks.put(new WeakReference<>(target), System.identityHashCode(target), lock);
+            targets.add(target);
+            locks.add(lock);
+        }
+
+        //then
+        for (int i = 0; i < 1000; i++) {
+            assertThat(targetLocks.get(targets.get(i))).isSameAs(locks.get(i));
+        }
+    }
+
+    @Test
+    public void removedLocksShouldNotBeFound() {
+        //given
+        TargetLocks targetLocks = new TargetLocks();
+        Object target = new Object();
+        Object other = new Object();
+        WeakReference<Object> reference = new WeakReference<>(target);
+        StampedLock otherLock = new StampedLock();
+        targetLocks.put(reference, System.identityHashCode(target), new StampedLock());
+        targetLocks.put(new WeakReference<>(other), System.identityHashCode(other), otherLock);
+
+        //when
+        targetLocks.remove(reference, System.identityHashCode(target));
+
+        //then
+        assertThat(targetLocks.get(target)).isNull();
+        assertThat(targetLocks.get(other)).isSameAs(otherLock);
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConnectionPoolTest {
+
+    private static final String URL = "jdbc:hsqldb:mem:pool";
+
+    private ConnectionPool connectionPool;
+
+    @Before
+    public void setUp() {
+        connectionPool = new ConnectionPool(URL, "sa", "", 2, 60000);
+    }
+
+    @Test
+    public void releasedConnectionsShouldBeReused() throws SQLException {
+        //given
+        Connection connection = connectionPool.borrow();
+        connectionPool.release(connection, false);
+
+        //when
+        Connection reusedConnection = connectionPool.borrow();
+
+        //then
+        assertThat(reusedConnection).isSameAs(connection);
+        connectionPool.release(reusedConnection, false);
+    }
+
+    @Test
+    public void brokenConnectionsShouldBeClosed() throws SQLException {
+        //given
+        Connection connection = connectionPool.borrow();
+
+        //when
+        connectionPool.release(connection, true);
+
+        //then
+        assertThat(connection.isClosed()).isTrue();
+        Connection newConnection = connectionPool.borrow();
+        assertThat(newConnection).isNotSameAs(connection);
+        connectionPool.release(newConnection, false);
+    }
+
+    @Test
+    public void connectionsReleasedAfterPoolIsClosedShouldBeClosed() throws SQLException {
+        //given
+        Connection idleConnection = connectionPool.borrow();
+        Connection borrowedConnection = connectionPool.borrow();
+        connectionPool.release(idleConnection, false);
+
+        //when
+        connectionPool.close();
+        connectionPool.release(borrowedConnection, false);
+
+        //then
+        assertThat(idleConnection.isClosed()).isTrue();
+        assertThat(borrowedConnection.isClosed()).isTrue();
+    }
+
+    @Test
+    public void closedConnectionsShouldNotBeReused() throws SQLException {
+        //given
+        Connection connection = connectionPool.borrow();
+        connectionPool.release(connection, false);
+        connection.close();
+
+        //when
+        Connection newConnection = connectionPool.borrow();
+
+        //then
+        assertThat(newConnection).isNotSameAs(connection);
+        assertThat(newConnection.isValid(1)).isTrue();
+        connectionPool.release(newConnection, false);
+    }
+
+    @Test
+    public void idleConnectionsShouldBeEvicted() throws SQLException {
+        //given
+        connectionPool = new ConnectionPool(URL, "sa", "", 2, 0);
+        Connection connection = connectionPool.borrow();
+
+        //when
+        connectionPool.release(connection, false);
+
+        //then
+        assertThat(connection.isClosed()).isTrue();
+    }
+
+    @After
+    public void tearDown() {
+        connectionPool.close();
+    }
+
+}
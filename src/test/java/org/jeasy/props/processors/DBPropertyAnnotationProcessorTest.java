@@ -28,10 +28,17 @@ import org.jeasy.props.api.PropertyInjectionException;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.jeasy.props.api.PropertiesInjector;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
 import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
 
+import javax.naming.Context;
+import javax.naming.InitialContext;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.jeasy.props.PropertiesInjectorBuilder.aNewPropertiesInjectorBuilder;
 
 public class DBPropertyAnnotationProcessorTest extends AbstractAnnotationProcessorTest {
 
@@ -123,6 +130,298 @@ public class DBPropertyAnnotationProcessorTest extends AbstractAnnotationProcess
         propertiesInjector.injectProperties(bean);
     }
 
+    @Test
+    public void whenDatabaseIsUpdatedBeforeTimeToLiveExpires_thenShouldInjectCachedValue() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-cached.properties", key = "name")
+            private String name;
+        }
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+
+        //when
+        new JdbcTemplate(embeddedDatabase).update("update ApplicationProperties set value = ? where key = ?", "Bar", "name");
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.name).isEqualTo("Foo");
+    }
+
+    @Test
+    public void whenDatabaseIsUpdatedAfterTimeToLiveExpires_thenShouldInjectNewValue() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-uncached.properties", key = "name")
+            private String name;
+        }
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+
+        //when
+        new JdbcTemplate(embeddedDatabase).update("update ApplicationProperties set value = ? where key = ?", "Bar", "name");
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.name).isEqualTo("Bar");
+    }
+
+    @Test
+    public void whenChecksumIsUnchanged_thenShouldNotReloadProperties() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-checksum.properties", key = "name")
+            private String name;
+        }
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+
+        //when
+        new JdbcTemplate(embeddedDatabase).update("update ApplicationProperties set value = ? where key = ?", "Bar", "name");
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.name).isEqualTo("Foo");
+    }
+
+    @Test
+    public void whenChecksumIsChanged_thenShouldReloadProperties() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-checksum.properties", key = "name")
+            private String name;
+        }
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+
+        //when
+        new JdbcTemplate(embeddedDatabase).update("update ApplicationProperties set id = ?, value = ? where key = ?", 2, "Bar", "name");
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.name).isEqualTo("Bar");
+    }
+
+    @Test
+    public void whenDataSourceIsRegistered_thenShouldGetConnectionsFromIt() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-datasource.properties", key = "name")
+            private String name;
+        }
+        Bean bean = new Bean();
+        PropertiesInjector propertiesInjector = aNewPropertiesInjectorBuilder()
+                .registerDataSource("database-datasource.properties", embeddedDatabase)
+                .build();
+
+        //when
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.name).isEqualTo("Foo");
+    }
+
+    @Test
+    public void whenDataSourceIsConfigured_thenShouldLookItUpInJndiContext() throws Exception {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-jndi.properties", key = "name")
+            private String name;
+        }
+        Bean bean = new Bean();
+        Context context = new InitialContext();
+        context.rebind("jdbc/test", embeddedDatabase);
+
+        //when
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.name).isEqualTo("Foo");
+        context.unbind("jdbc/test");
+    }
+
+    @Test
+    public void whenVersionColumnIsConfigured_thenShouldOnlyReloadChangedRows() {
+        //given
+        JdbcTemplate jdbcTemplate = createVersionedPropertiesTable();
+        VersionedBean bean = new VersionedBean();
+        propertiesInjector.injectProperties(bean);
+
+        //when
+        jdbcTemplate.update("update VersionedProperties set value = ?, version = ? where key = ?", "b2", 3, "b");
+        jdbcTemplate.update("update VersionedProperties set value = ? where key = ?", "a2", "a"); // version not incremented
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.a).isEqualTo("a1");
+        assertThat(bean.b).isEqualTo("b2");
+    }
+
+    @Test
+    public void whenVersionedRowIsDeleted_thenShouldRemoveKey() {
+        //given
+        JdbcTemplate jdbcTemplate = createVersionedPropertiesTable();
+        propertiesInjector.injectProperties(new VersionedBean());
+
+        //when
+        jdbcTemplate.update("delete from VersionedProperties where key = ?", "a");
+        VersionedBean bean = new VersionedBean();
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.a).isNull();
+        assertThat(bean.b).isEqualTo("b1");
+    }
+
+    @Test
+    public void whenVersionedRowIsDeletedAndAnotherIsInserted_thenShouldReloadKeys() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-versioned.properties", key = "a")
+            private String a;
+            @DBProperty(configuration = "database-versioned.properties", key = "c")
+            private String c;
+        }
+        JdbcTemplate jdbcTemplate = createVersionedPropertiesTable();
+        propertiesInjector.injectProperties(new Bean());
+
+        //when
+        jdbcTemplate.update("delete from VersionedProperties where key = ?", "a");
+        jdbcTemplate.update("insert into VersionedProperties values (?, ?, ?)", "c", "c1", 3);
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.a).isNull();
+        assertThat(bean.c).isEqualTo("c1");
+    }
+
+    @Test
+    public void whenVersionedRowIsDeletedAndDeletedKeysAreKept_thenShouldKeepKey() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-versioned-keep.properties", key = "a")
+            private String a;
+        }
+        JdbcTemplate jdbcTemplate = createVersionedPropertiesTable();
+        propertiesInjector.injectProperties(new Bean());
+
+        //when
+        jdbcTemplate.update("delete from VersionedProperties where key = ?", "a");
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.a).isEqualTo("a1");
+    }
+
+    @Test
+    public void whenKeyLookupIsConfigured_thenShouldFetchKeysOfAllFieldsInBatches() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-keys.properties", key = "name")
+            private String name;
+            @DBProperty(configuration = "database-keys.properties", key = "k1")
+            private String k1;
+            @DBProperty(configuration = "database-keys.properties", key = "k2")
+            private String k2;
+            @DBProperty(configuration = "database-keys.properties", key = "k3")
+            private String k3;
+            @DBProperty(configuration = "database-keys.properties", key = "blah", defaultValue = "default")
+            private String missing;
+        }
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(embeddedDatabase);
+        for (int i = 1; i <= 3; i++) {
+            jdbcTemplate.update("insert into ApplicationProperties values (?, ?, ?)", i + 1, "k" + i, "v" + i);
+        }
+        Bean bean = new Bean();
+
+        //when
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.name).isEqualTo("Foo");
+        assertThat(bean.k1).isEqualTo("v1");
+        assertThat(bean.k2).isEqualTo("v2");
+        assertThat(bean.k3).isEqualTo("v3");
+        assertThat(bean.missing).isEqualTo("default");
+    }
+
+    @Test
+    public void whenKeyLookupIsConfiguredAndKeyWasNotFetched_thenShouldFetchIt() {
+        //given
+        class Bean {
+            @DBProperty(configuration = "database-keys.properties", key = "name")
+            private String name;
+        }
+        class OtherBean {
+            @DBProperty(configuration = "database-keys.properties", key = "other")
+            private String other;
+        }
+        propertiesInjector.injectProperties(new Bean());
+        new JdbcTemplate(embeddedDatabase).update("insert into ApplicationProperties values (?, ?, ?)", 2, "other", "Bar");
+        OtherBean otherBean = new OtherBean();
+
+        //when
+        propertiesInjector.injectProperties(otherBean);
+
+        //then
+        assertThat(otherBean.other).isEqualTo("Bar");
+    }
+
+    static class KeysParent {
+        @DBProperty(configuration = "database-keys.properties", key = "k1")
+        String k1;
+    }
+
+    static class KeysChild extends KeysParent {
+        @DBProperty(configuration = "database-keys.properties", key = "k2")
+        String k2;
+        @DBProperty(configuration = "database.properties", key = "name")
+        String name;
+    }
+
+    @Test
+    public void keysShouldIncludeKeysOfSuperclasses() {
+        //when
+        Set<String> keys = DBPropertyAnnotationProcessor.getKeys(KeysChild.class, "database-keys.properties");
+
+        //then
+        assertThat(keys).containsExactlyInAnyOrder("k1", "k2");
+        assertThat(DBPropertyAnnotationProcessor.getKeys(KeysChild.class, "other-database.properties")).isEmpty();
+    }
+
+    @Test
+    public void whenKeyLookupIsConfigured_thenShouldFetchKeysOfInheritedFields() {
+        //given
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(embeddedDatabase);
+        jdbcTemplate.update("insert into ApplicationProperties values (?, ?, ?)", 2, "k1", "v1");
+        jdbcTemplate.update("insert into ApplicationProperties values (?, ?, ?)", 3, "k2", "v2");
+        KeysChild bean = new KeysChild();
+
+        //when
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.k1).isEqualTo("v1");
+        assertThat(bean.k2).isEqualTo("v2");
+    }
+
+    static class VersionedBean {
+        @DBProperty(configuration = "database-versioned.properties", key = "a")
+        private String a;
+        @DBProperty(configuration = "database-versioned.properties", key = "b")
+        private String b;
+    }
+
+    private JdbcTemplate createVersionedPropertiesTable() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(embeddedDatabase);
+        jdbcTemplate.execute("create table VersionedProperties (key varchar(64), value varchar(64), version int)");
+        jdbcTemplate.update("insert into VersionedProperties values (?, ?, ?)", "a", "a1", 1);
+        jdbcTemplate.update("insert into VersionedProperties values (?, ?, ?)", "b", "b1", 2);
+        return jdbcTemplate;
+    }
+
     @After
     public void shutdownEmbeddedDatabase() {
         embeddedDatabase.shutdown();
@@ -31,6 +31,8 @@ import org.junit.Test;
 
 import javax.naming.Context;
 import javax.naming.InitialContext;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -43,6 +45,7 @@ public class JNDIPropertyAnnotationProcessorTest extends AbstractAnnotationProce
         super.setUp();
         context = new InitialContext();
         context.bind("foo.property", "jndi");
+        context.bind("bar.property", "other");
     }
 
     @Test
@@ -108,6 +111,25 @@ public class JNDIPropertyAnnotationProcessorTest extends AbstractAnnotationProce
         propertiesInjector.injectProperties(bean);
     }
 
+    @Test
+    public void whenPropertiesAreInjectedAsynchronously_thenDifferentNamesShouldBeLookedUp() throws Exception {
+        //given
+        class Bean {
+            @JNDIProperty("foo.property")
+            private String foo;
+            @JNDIProperty("bar.property")
+            private String bar;
+        }
+        Bean bean = new Bean();
+
+        //when
+        propertiesInjector.injectPropertiesAsync(bean, ForkJoinPool.commonPool()).get(5, TimeUnit.SECONDS);
+
+        //then
+        assertThat(bean.foo).isEqualTo("jndi");
+        assertThat(bean.bar).isEqualTo("other");
+    }
+
     @After
     public void tearDown() throws Exception {
         context.close();
@@ -0,0 +1,104 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LazyPropertiesTest {
+
+    private final LazyProperties lazyProperties = new LazyProperties(new PropertiesSource(
+            new PropertiesSource.Fingerprint(null, 0, 0, new byte[] {0}), ByteBuffer.wrap("a=1\nb=2\nc=3".getBytes(ISO_8859_1))));
+
+    @Test
+    public void contentShouldBeReleasedOnceExpectedKeysAreResolved() throws IOException {
+        //given
+        lazyProperties.expect(Arrays.asList("a", "missing"));
+
+        //when
+        String a = lazyProperties.getProperty("a");
+
+        //then
+        assertThat(a).isEqualTo("1");
+        assertThat(lazyProperties.isReleased()).isFalse();
+        assertThat(lazyProperties.getProperty("missing")).isNull();
+        assertThat(lazyProperties.isReleased()).isTrue();
+        assertThat(lazyProperties.getProperty("a")).isEqualTo("1");
+    }
+
+    @Test
+    public void expectingUnresolvedKeysOfReleasedContentShouldFail() throws IOException {
+        //given
+        lazyProperties.expect(Collections.singleton("a"));
+        lazyProperties.getProperty("a");
+
+        //when
+        boolean expected = lazyProperties.expect(Arrays.asList("a", "b"));
+
+        //then
+        assertThat(expected).isFalse();
+        assertThat(lazyProperties.expect(Collections.singleton("a"))).isTrue();
+    }
+
+    @Test
+    public void keysExpectedAfterContentIsReleasedShouldBeResolvedFromTheSameContent() throws IOException {
+        //given
+        lazyProperties.expect(Collections.singleton("a"));
+        lazyProperties.getProperty("a");
+        PropertiesSource sameContent = new PropertiesSource(
+                new PropertiesSource.Fingerprint(null, 0, 0, new byte[] {0}), ByteBuffer.wrap("a=1\nb=2\nc=3".getBytes(ISO_8859_1)));
+
+        //when
+        boolean expected = lazyProperties.expect(Arrays.asList("a", "b"), sameContent);
+
+        //then
+        assertThat(expected).isTrue();
+        assertThat(lazyProperties.getProperty("b")).isEqualTo("2");
+        assertThat(lazyProperties.getProperty("a")).isEqualTo("1");
+        assertThat(lazyProperties.isReleased()).isTrue();
+    }
+
+    @Test
+    public void keysExpectedAfterContentIsReleasedShouldNotBeResolvedFromChangedContent() throws IOException {
+        //given
+        lazyProperties.expect(Collections.singleton("a"));
+        lazyProperties.getProperty("a");
+        PropertiesSource changedContent = new PropertiesSource(
+                new PropertiesSource.Fingerprint(null, 0, 0, new byte[] {1}), ByteBuffer.wrap("a=2\nb=3".getBytes(ISO_8859_1)));
+
+        //when
+        boolean expected = lazyProperties.expect(Arrays.asList("a", "b"), changedContent);
+
+        //then
+        assertThat(expected).isFalse();
+    }
+
+}
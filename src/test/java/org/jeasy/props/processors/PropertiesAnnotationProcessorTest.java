@@ -23,6 +23,11 @@
  */
 package org.jeasy.props.processors;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+
 import org.jeasy.props.annotations.Properties;
 import org.jeasy.props.api.PropertyInjectionException;
 import org.junit.Test;
@@ -98,4 +103,27 @@ public class PropertiesAnnotationProcessorTest extends AbstractAnnotationProcess
         //then should throw an exception
     }
 
+    @Test
+    public void whenFileIsTouchedButUnchanged_thenShouldNotReloadProperties() throws Exception {
+        //given
+        class Bean {
+            @Properties("file:target/touched.properties")
+            private java.util.Properties myProperties;
+        }
+        Path file = Paths.get("target/touched.properties");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "bean.name=Foo".getBytes());
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+        java.util.Properties properties = bean.myProperties;
+
+        //when
+        Files.write(file, "bean.name=Foo".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.myProperties).isSameAs(properties);
+    }
+
 }
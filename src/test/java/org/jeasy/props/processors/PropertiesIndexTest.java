@@ -0,0 +1,133 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Properties;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PropertiesIndexTest {
+
+    private static final String CONTENT = "# comment\n" +
+            "! another comment \\\n" +
+            "\n" +
+            "   \t\n" +
+            "simple=value\n" +
+            "colon:value\n" +
+            "space value\n" +
+            "  indented = spaced value  \n" +
+            "empty=\n" +
+            "noValue\n" +
+            "continued=first, \\\n" +
+            "     second, \\\r\n" +
+            "     third\r" +
+            "escaped\\ key\\=with\\:separators=a\\tb\\nc\\\\d\\=\n" +
+            "unicode=caf\\u00e9 \u00e9t\u00e9\n" +
+            "duplicate=first\n" +
+            "duplicate=last\n" +
+            "key \\\n" +
+            "  = continued separator\n" +
+            "trailing=backslash\\";
+
+    @Test
+    public void indexShouldMatchJavaUtilProperties() throws IOException {
+        //given
+        Properties expected = new Properties();
+        expected.load(new ByteArrayInputStream(CONTENT.getBytes(ISO_8859_1)));
+
+        //when
+        PropertiesIndex index = new PropertiesIndex(ByteBuffer.wrap(CONTENT.getBytes(ISO_8859_1)));
+
+        //then
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (String key : expected.stringPropertyNames()) {
+            assertThat(index.getProperty(key)).as(key).isEqualTo(expected.getProperty(key));
+        }
+        assertThat(index.toProperties()).isEqualTo(expected);
+    }
+
+    @Test
+    public void linesStartingWithContinuationsShouldMatchJavaUtilProperties() throws IOException {
+        //given
+        String content = "\\\r#comment\n" +
+                "  \\\n  !comment=1\n" +
+                "\\\r\n\\\n\n" +
+                "key\\\r#value\n" +
+                "\\\n  continued=value";
+        Properties expected = new Properties();
+        expected.load(new ByteArrayInputStream(content.getBytes(ISO_8859_1)));
+
+        //when
+        PropertiesIndex index = new PropertiesIndex(ByteBuffer.wrap(content.getBytes(ISO_8859_1)));
+
+        //then
+        assertThat(index.toProperties()).isEqualTo(expected).containsOnlyKeys("key#value", "continued");
+    }
+
+    @Test
+    public void missingKeysShouldHaveNoValue() throws IOException {
+        //given
+        PropertiesIndex index = new PropertiesIndex(ByteBuffer.wrap(CONTENT.getBytes(ISO_8859_1)));
+
+        //when
+        String value = index.getProperty("comment");
+
+        //then
+        assertThat(value).isNull();
+        assertThat(index.getProperty("simpl")).isNull();
+    }
+
+    @Test
+    public void valuesShouldBeDecodedOnce() throws IOException {
+        //given
+        PropertiesIndex index = new PropertiesIndex(ByteBuffer.wrap(CONTENT.getBytes(ISO_8859_1)));
+
+        //when
+        String value = index.getProperty("simple");
+
+        //then
+        assertThat(index.getProperty("simple")).isSameAs(value);
+    }
+
+    @Test
+    public void malformedUnicodeEscapesShouldBeRejectedOnLookup() throws IOException {
+        //given
+        PropertiesIndex index = new PropertiesIndex(ByteBuffer.wrap("key=\\u00zz\nother=value".getBytes(ISO_8859_1)));
+
+        //when
+        String value = index.getProperty("other");
+
+        //then
+        assertThat(value).isEqualTo("value");
+        assertThatThrownBy(() -> index.getProperty("key")).isInstanceOf(IOException.class);
+    }
+
+}
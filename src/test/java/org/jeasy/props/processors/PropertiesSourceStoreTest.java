@@ -0,0 +1,108 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PropertiesSourceStoreTest {
+
+    private final PropertiesSourceStore propertiesSourceStore = new PropertiesSourceStore();
+
+    private Path file;
+    private String source;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("store", ".properties");
+        Files.write(file, "key=value".getBytes());
+        source = "file:" + file.toAbsolutePath();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void sourcesShouldBeSharedByProcessors() throws IOException {
+        //given
+        PropertiesSource propertiesSource = propertiesSourceStore.get(source, new PropertyAnnotationProcessor());
+
+        //when
+        PropertiesSource otherPropertiesSource = propertiesSourceStore.get(source, new PropertiesAnnotationProcessor());
+
+        //then
+        assertThat(otherPropertiesSource).isSameAs(propertiesSource);
+        assertThat(propertiesSourceStore.get("myProperties.properties", new PropertyAnnotationProcessor()))
+                .isSameAs(propertiesSourceStore.get("myProperties.properties", new MavenPropertyAnnotationProcessor()));
+    }
+
+    @Test
+    public void touchedSourcesShouldKeepTheirIndex() throws IOException {
+        //given
+        PropertiesSource propertiesSource = propertiesSourceStore.get(source, new PropertyAnnotationProcessor());
+        PropertiesIndex index = propertiesSource.getIndex();
+
+        //when
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        PropertiesSource touchedPropertiesSource = propertiesSourceStore.get(source, new PropertyAnnotationProcessor());
+
+        //then
+        assertThat(touchedPropertiesSource.getIndex()).isSameAs(index);
+    }
+
+    @Test
+    public void modifiedSourcesShouldBeLoadedAgain() throws IOException {
+        //given
+        PropertiesSource propertiesSource = propertiesSourceStore.get(source, new PropertyAnnotationProcessor());
+        assertThat(propertiesSource.getIndex().getProperty("key")).isEqualTo("value");
+
+        //when
+        Files.write(file, "key=new value".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 2000));
+        PropertiesSource modifiedPropertiesSource = propertiesSourceStore.get(source, new PropertyAnnotationProcessor());
+
+        //then
+        assertThat(modifiedPropertiesSource.getIndex().getProperty("key")).isEqualTo("new value");
+    }
+
+    @Test
+    public void missingSourcesShouldNotBeFound() throws IOException {
+        //when
+        PropertiesSource propertiesSource = propertiesSourceStore.get("missing.properties", new PropertyAnnotationProcessor());
+
+        //then
+        assertThat(propertiesSource).isNull();
+    }
+
+}
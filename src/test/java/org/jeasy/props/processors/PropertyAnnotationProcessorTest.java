@@ -28,6 +28,12 @@ import org.jeasy.props.annotations.SystemProperty;
 import org.jeasy.props.api.PropertyInjectionException;
 import org.junit.Test;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class PropertyAnnotationProcessorTest extends AbstractAnnotationProcessorTest {
@@ -51,6 +57,57 @@ public class PropertyAnnotationProcessorTest extends AbstractAnnotationProcessor
         assertThat(bean.beanAge).isEqualTo(30);
     }
 
+    @Test
+    public void testLazyPropertyInjection() {
+        //given
+        class Bean {
+            @Property(source = "classpath:myProperties.properties", key = "bean.name", lazy = true)
+            private String beanName;
+            @Property(source = "classpath:myProperties.properties", key = "missing.key", defaultValue = "default", lazy = true)
+            private String missing;
+        }
+        class OtherBean {
+            @Property(source = "classpath:myProperties.properties", key = "empty.key", defaultValue = "default", lazy = true)
+            private String empty;
+            @Property(source = "file:src/test/resources/fileSystemProperties.properties", key = "bean.age", lazy = true)
+            private int beanAge;
+        }
+        Bean bean = new Bean();
+        OtherBean otherBean = new OtherBean();
+
+        //when
+        propertiesInjector.injectProperties(bean);
+        propertiesInjector.injectProperties(otherBean);
+
+        //then
+        assertThat(bean.beanName).isEqualTo("Foo");
+        assertThat(bean.missing).isEqualTo("default");
+        assertThat(otherBean.empty).isNull();
+        assertThat(otherBean.beanAge).isEqualTo(30);
+    }
+
+    static class LazyParent {
+        @Property(source = "classpath:myProperties.properties", key = "bean.name", lazy = true)
+        String beanName;
+    }
+
+    static class LazyChild extends LazyParent {
+        @Property(source = "classpath:myProperties.properties", key = "empty.key", lazy = true)
+        String empty;
+        @Property(source = "classpath:myProperties.properties", key = "eager.key")
+        String eager;
+    }
+
+    @Test
+    public void lazyKeysShouldIncludeKeysOfSuperclasses() {
+        //when
+        Set<String> keys = PropertyAnnotationProcessor.getLazyKeys(LazyChild.class, "classpath:myProperties.properties");
+
+        //then
+        assertThat(keys).containsExactlyInAnyOrder("bean.name", "empty.key");
+        assertThat(PropertyAnnotationProcessor.getLazyKeys(LazyChild.class, "other.properties")).isEmpty();
+    }
+
     @Test
     public void testPropertyInjectionOfMissingKeyWithDefaultValue() {
         //given
@@ -218,4 +275,26 @@ public class PropertyAnnotationProcessorTest extends AbstractAnnotationProcessor
         assertThat(bean.property).isEqualTo("Default");
     }
 
+    @Test
+    public void whenFileIsModified_thenShouldReloadProperties() throws Exception {
+        //given
+        class Bean {
+            @Property(source = "file:target/reloadable.properties", key = "bean.name")
+            private String beanName;
+        }
+        Path file = Paths.get("target/reloadable.properties");
+        Files.createDirectories(file.getParent());
+        Files.write(file, "bean.name=Foo".getBytes());
+        Bean bean = new Bean();
+        propertiesInjector.injectProperties(bean);
+
+        //when
+        Files.write(file, "bean.name=Bar".getBytes());
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        propertiesInjector.injectProperties(bean);
+
+        //then
+        assertThat(bean.beanName).isEqualTo("Bar");
+    }
+
 }
@@ -0,0 +1,100 @@
+/*
+ * The MIT License
+ *
+ *   Copyright (c) 2020, Mahmoud Ben Hassine (mahmoud.benhassine@icloud.com)
+ *
+ *   Permission is hereby granted, free of charge, to any person obtaining a copy
+ *   of this software and associated documentation files (the "Software"), to deal
+ *   in the Software without restriction, including without limitation the rights
+ *   to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ *   copies of the Software, and to permit persons to whom the Software is
+ *   furnished to do so, subject to the following conditions:
+ *
+ *   The above copyright notice and this permission notice shall be included in
+ *   all copies or substantial portions of the Software.
+ *
+ *   THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ *   IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ *   FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ *   AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ *   LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ *   OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ *   THE SOFTWARE.
+ */
+package org.jeasy.props.processors;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SourceCacheTest {
+
+    private final SourceCache<String> sourceCache = new SourceCache<>();
+
+    @Test
+    public void concurrentAccessesShouldLoadSourceOnce() throws Exception {
+        //given
+        int threads = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Callable<String>> accesses = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            accesses.add(() -> {
+                start.await();
+                return sourceCache.get("source", name -> {
+                    loads.incrementAndGet();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                    return name + "-content";
+                });
+            });
+        }
+
+        //when
+        List<Future<String>> results = new ArrayList<>();
+        for (Callable<String> access : accesses) {
+            results.add(executorService.submit(access));
+        }
+        start.countDown();
+
+        //then
+        for (Future<String> result : results) {
+            assertThat(result.get()).isEqualTo("source-content");
+        }
+        assertThat(loads).hasValue(1);
+        executorService.shutdown();
+    }
+
+    @Test
+    public void missingSourcesShouldNotBeCached() throws Exception {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        sourceCache.get("source", name -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        //when
+        String source = sourceCache.get("source", name -> {
+            loads.incrementAndGet();
+            return "content";
+        });
+
+        //then
+        assertThat(source).isEqualTo("content");
+        assertThat(loads).hasValue(2);
+        assertThat(sourceCache.getIfPresent("source")).isEqualTo("content");
+    }
+
+}